@@ -0,0 +1,80 @@
+package com.project.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.project.model.Product;
+import com.project.model.dto.ProductCardDTO;
+import com.project.service.CategoryService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Fills {@code categoryName} on serialized products and product cards from the in-memory
+     * category dictionary, so listings carry the name without a join or a per-product lookup.
+     * Spring Boot registers Module beans with the application's ObjectMapper.
+     */
+    @Bean
+    public Module categoryNameModule(ObjectProvider<CategoryService> categoryService) {
+        SimpleModule module = new SimpleModule("CategoryNameModule");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> beanProperties) {
+                Class<?> type = beanDesc.getBeanClass();
+                if (type != Product.class && type != ProductCardDTO.class) {
+                    return beanProperties;
+                }
+                for (int i = 0; i < beanProperties.size(); i++) {
+                    if ("categoryName".equals(beanProperties.get(i).getName())) {
+                        beanProperties.set(i, new CategoryNameWriter(beanProperties.get(i), categoryService));
+                    }
+                }
+                return beanProperties;
+            }
+        });
+        return module;
+    }
+
+    private static class CategoryNameWriter extends BeanPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        // Resolved lazily: the ObjectMapper is built before the service layer
+        private final transient ObjectProvider<CategoryService> categoryService;
+
+        private CategoryNameWriter(BeanPropertyWriter base, ObjectProvider<CategoryService> categoryService) {
+            super(base);
+            this.categoryService = categoryService;
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            // A name set explicitly on the object wins over the dictionary
+            Object name = get(bean);
+            if (name == null) {
+                Long categoryId = bean instanceof Product
+                        ? ((Product) bean).getCategoryId()
+                        : ((ProductCardDTO) bean).getCategoryId();
+                name = categoryService.getObject().getCategoryName(categoryId);
+            }
+            gen.writeFieldName(_name);
+            if (name == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(name.toString());
+            }
+        }
+    }
+}
@@ -1,71 +1,235 @@
 package com.project.config;
 import java.io.File;
-import java.io.FileInputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import com.project.util.XlsxRowReader;
 
+/**
+ * Command-line import of products from the first sheet of an .xlsx file.
+ *
+ * The sheet is read with POI's event (SAX) model ({@link XlsxRowReader}), one row at a time, instead of loading the
+ * whole workbook. Rows are inserted with JDBC batches and committed every batch, so memory
+ * stays bounded however many rows the file has. With more than one writer, parsed batches
+ * go through a bounded queue to a pool of writer threads, each with its own connection.
+ *
+ * Options, as {@code --name=value} arguments or {@code -Dimport.name=value} system properties:
+ * file (required), url, user, password, batch-size (default 1000), writers (default 1).
+ *
+ * Expected columns: description, image_url, image_view_2, image_view_3, image_view_4, name, price.
+ * The first row is a header. Rows without a valid price are skipped and counted as rejected.
+ */
 public class ProductImporter {
 
+    private static final String INSERT_SQL = "INSERT INTO product (description, image_url, image_view_2, image_view_3, " +
+            "image_view_4, name, price, deleted, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0)";
+    private static final int COLUMN_COUNT = 7;
+    private static final int PRICE_COLUMN = 6;
+    // product.price is DECIMAL(10, 2)
+    private static final int PRICE_PRECISION = 10;
+    // Empty batch telling a writer thread to stop
+    private static final List<String[]> END = new ArrayList<>();
+
     public static void main(String[] args) {
-        String jdbcURL = "jdbc:mysql://localhost:3306/projectsem2";
-        String username = "root";
-        String excelFilePath = "D:\\projectSem2BullXit\\ProjectSem2\\Backend\\SpringBootBackend\\ProjectSEM2\\src\\main\\resources\\static\\imge.xlsx";
+        Map<String, String> options = parseOptions(args);
+        String excelFilePath = option(options, "file", null);
+        if (excelFilePath == null) {
+            System.err.println("Usage: ProductImporter --file=products.xlsx [--url=jdbc:mysql://...] [--user=root] " +
+                    "[--password=] [--batch-size=1000] [--writers=1]");
+            System.exit(2);
+        }
+        // rewriteBatchedStatements lets Connector/J send each batch as a single multi-row insert
+        String jdbcURL = option(options, "url", "jdbc:mysql://localhost:3306/projectsem2?rewriteBatchedStatements=true");
+        String username = option(options, "user", "root");
+        String password = option(options, "password", "");
+        int batchSize = Integer.parseInt(option(options, "batch-size", "1000"));
+        int writers = Integer.parseInt(option(options, "writers", "1"));
 
-        try (Connection conn = DriverManager.getConnection(jdbcURL, username, "");
-             FileInputStream inputStream = new FileInputStream(new File(excelFilePath));
-             Workbook workbook = new XSSFWorkbook(inputStream)) {
+        long started = System.nanoTime();
+        AtomicLong rejected = new AtomicLong();
+        try {
+            long imported = writers <= 1
+                    ? importSingle(excelFilePath, jdbcURL, username, password, batchSize, rejected)
+                    : importParallel(excelFilePath, jdbcURL, username, password, batchSize, writers, rejected);
+            System.out.println("Dữ liệu đã được thêm thành công! " + imported + " products in "
+                    + (System.nanoTime() - started) / 1_000_000 + " ms, " + rejected.get()
+                    + " rows rejected for a missing or invalid price");
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
 
-            Sheet sheet = workbook.getSheetAt(0);
-            String sql = "INSERT INTO product (description, image_url, image_view_2, image_view_3, image_view_4, name, price) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement statement = conn.prepareStatement(sql);
+    // Parses and writes on the calling thread
+    private static long importSingle(String file, String url, String user, String password, int batchSize,
+                                     AtomicLong rejected) throws Exception {
+        try (Connection conn = DriverManager.getConnection(url, user, password)) {
+            conn.setAutoCommit(false);
+            BatchWriter writer = new BatchWriter(conn, rejected);
+            List<String[]> batch = new ArrayList<>(batchSize);
+            readRows(file, row -> {
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    writer.write(batch);
+                    batch.clear();
+                }
+            });
+            writer.write(batch);
+            return writer.written;
+        }
+    }
 
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
+    // Parses on the calling thread and hands batches to writer threads through a bounded queue
+    private static long importParallel(String file, String url, String user, String password, int batchSize,
+                                       int writers, AtomicLong rejected) throws Exception {
+        // At most two batches waiting per writer; the parser blocks when the writers fall behind
+        BlockingQueue<List<String[]>> queue = new ArrayBlockingQueue<>(writers * 2);
+        AtomicLong written = new AtomicLong();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>(writers);
+        for (int i = 0; i < writers; i++) {
+            Thread thread = new Thread(() -> {
+                try (Connection conn = DriverManager.getConnection(url, user, password)) {
+                    conn.setAutoCommit(false);
+                    BatchWriter writer = new BatchWriter(conn, rejected);
+                    for (List<String[]> batch = queue.take(); batch != END; batch = queue.take()) {
+                        if (failure.get() == null) {
+                            writer.write(batch);
+                        }
+                    }
+                    written.addAndGet(writer.written);
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                    // Keep draining so the parser never blocks on a queue nobody reads
+                    drainUntilEnd(queue);
+                }
+            }, "product-import-writer-" + i);
+            thread.start();
+            threads.add(thread);
+        }
 
-                statement.setString(1, getCellValue(row.getCell(0))); // description
-                statement.setString(2, getCellValue(row.getCell(1))); // image_url
-                statement.setString(3, getCellValue(row.getCell(2))); // image_view_2
-                statement.setString(4, getCellValue(row.getCell(3))); // image_view_3
-                statement.setString(5, getCellValue(row.getCell(4))); // image_view_4
-                statement.setString(6, getCellValue(row.getCell(5))); // name
-                statement.setDouble(7, parseDouble(row.getCell(6))); // price
+        try {
+            List<String[]> batch = new ArrayList<>(batchSize);
+            readRows(file, row -> {
+                if (failure.get() != null) {
+                    throw new IllegalStateException("Writer failed", failure.get());
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    queue.put(new ArrayList<>(batch));
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+            }
+        } finally {
+            for (int i = 0; i < writers; i++) {
+                queue.put(END);
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return written.get();
+    }
 
-                statement.executeUpdate();
+    private static void drainUntilEnd(BlockingQueue<List<String[]>> queue) {
+        try {
+            while (queue.take() != END) {
+                // discard
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            System.out.println("Dữ liệu đã được thêm thành công!");
+    private static void readRows(String file, XlsxRowReader.RowHandler handler) throws Exception {
+        XlsxRowReader.read(new File(file), COLUMN_COUNT, handler);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
         }
+        return options;
+    }
+
+    private static String option(Map<String, String> options, String name, String defaultValue) {
+        String value = options.get(name);
+        return value != null ? value : System.getProperty("import." + name, defaultValue);
     }
 
-    private static String getCellValue(Cell cell) {
-        if (cell == null) return null;
-        switch (cell.getCellType()) {
-            case STRING: return cell.getStringCellValue();
-            case NUMERIC: return String.valueOf(cell.getNumericCellValue());
-            case BOOLEAN: return String.valueOf(cell.getBooleanCellValue());
-            default: return null;
+    // Null when the price is missing, not a number, negative or too large for DECIMAL(10, 2)
+    private static BigDecimal parsePrice(String value) {
+        if (value == null || value.trim().isEmpty()) return null;
+        BigDecimal price;
+        try {
+            // Formatted cells may carry grouping separators ("1,200")
+            price = new BigDecimal(value.trim().replace(",", "")).setScale(2, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            return null;
         }
+        if (price.signum() < 0 || price.precision() > PRICE_PRECISION) return null;
+        return price;
     }
 
-    private static double parseDouble(Cell cell) {
-        if (cell == null) return 0.0;
-        if (cell.getCellType() == CellType.NUMERIC) {
-            return cell.getNumericCellValue();
-        } else if (cell.getCellType() == CellType.STRING) {
-            try {
-                return Double.parseDouble(cell.getStringCellValue());
-            } catch (NumberFormatException e) {
-                return 0.0;
+    /**
+     * Inserts rows with one JDBC batch per call and commits after each batch.
+     */
+    private static class BatchWriter {
+        private final Connection conn;
+        private final PreparedStatement statement;
+        // Shared by all writers of a run
+        private final AtomicLong rejected;
+        private long written;
+
+        private BatchWriter(Connection conn, AtomicLong rejected) throws SQLException {
+            this.conn = conn;
+            this.statement = conn.prepareStatement(INSERT_SQL);
+            this.rejected = rejected;
+        }
+
+        private void write(List<String[]> rows) throws SQLException {
+            if (rows.isEmpty()) return;
+            int batched = 0;
+            for (String[] row : rows) {
+                BigDecimal price = parsePrice(row[PRICE_COLUMN]);
+                if (price == null) {
+                    rejected.incrementAndGet();
+                    continue;
+                }
+                statement.setString(1, row[0]); // description
+                statement.setString(2, row[1]); // image_url
+                statement.setString(3, row[2]); // image_view_2
+                statement.setString(4, row[3]); // image_view_3
+                statement.setString(5, row[4]); // image_view_4
+                statement.setString(6, row[5]); // name
+                statement.setBigDecimal(7, price); // price
+                statement.addBatch();
+                batched++;
             }
+            if (batched == 0) return;
+            statement.executeBatch();
+            conn.commit();
+            written += batched;
         }
-        return 0.0;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.project.controller;
+
+import com.project.service.CartSweeper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/carts")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "true")
+public class AdminCartController {
+
+    private final CartSweeper cartSweeper;
+
+    @Autowired
+    public AdminCartController(CartSweeper cartSweeper) {
+        this.cartSweeper = cartSweeper;
+    }
+
+    /**
+     * Sweeper settings, totals and the metrics of the last run.
+     */
+    @GetMapping("/sweeper")
+    public ResponseEntity<Map<String, Object>> getSweeperStats() {
+        return ResponseEntity.ok(cartSweeper.getStats());
+    }
+
+    /**
+     * Deletes idle carts now instead of waiting for the scheduled run.
+     */
+    @PostMapping("/sweeper/run")
+    public ResponseEntity<?> runSweeper() {
+        Map<String, Object> run = cartSweeper.sweep();
+        if (run == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("A cart sweep is already running");
+        }
+        return ResponseEntity.ok(run);
+    }
+}
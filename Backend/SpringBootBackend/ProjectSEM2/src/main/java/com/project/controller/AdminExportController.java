@@ -0,0 +1,53 @@
+package com.project.controller;
+
+import com.project.service.CatalogExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "true")
+public class AdminExportController {
+
+    private static final String XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final CatalogExportService catalogExportService;
+
+    @Autowired
+    public AdminExportController(CatalogExportService catalogExportService) {
+        this.catalogExportService = catalogExportService;
+    }
+
+    /**
+     * Downloads all active products with their stock as {@code csv} or {@code xlsx}. The
+     * file is written to the response while rows are read, never built up in memory.
+     */
+    @GetMapping("/products/export")
+    public ResponseEntity<?> exportProducts(@RequestParam(defaultValue = "csv") String format) {
+        StreamingResponseBody body;
+        MediaType contentType;
+        if ("csv".equalsIgnoreCase(format)) {
+            body = catalogExportService::writeCsv;
+            contentType = new MediaType("text", "csv", StandardCharsets.UTF_8);
+        } else if ("xlsx".equalsIgnoreCase(format)) {
+            body = catalogExportService::writeXlsx;
+            contentType = MediaType.parseMediaType(XLSX);
+        } else {
+            return ResponseEntity.badRequest().body("Unknown export format: " + format + " (expected csv or xlsx)");
+        }
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("products." + format.toLowerCase())
+                .build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .contentType(contentType)
+                .body(body);
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.project.model.ImportJob;
+import com.project.model.dto.ImportResultDTO;
+import com.project.service.BulkImportService;
+import com.project.service.ImportJobService;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "true")
+public class AdminImportController {
+
+    private final BulkImportService bulkImportService;
+    private final ImportJobService importJobService;
+
+    @Autowired
+    public AdminImportController(BulkImportService bulkImportService, ImportJobService importJobService) {
+        this.bulkImportService = bulkImportService;
+        this.importJobService = importJobService;
+    }
+
+    /**
+     * Imports a DataImportDTO payload ({@code {"categories": [...], "products": [...]}}).
+     * The request body is parsed as it arrives rather than bound up front.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> importCatalog(InputStream body) {
+        try {
+            ImportResultDTO result = bulkImportService.importCatalog(body);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            return ResponseEntity.badRequest().body("Invalid import payload: " + e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to read import payload: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Import failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a background import of the request body, a JSON payload or an .xlsx product
+     * sheet, and answers 202 right away. The body is streamed to disk, so it is not subject
+     * to multipart size limits. Poll {@code GET /api/admin/import/{jobId}} for progress.
+     *
+     * @param format json or xlsx; taken from the file name's extension when omitted
+     */
+    @PostMapping("/import/jobs")
+    public ResponseEntity<?> submitImportJob(InputStream body,
+                                             @RequestParam(required = false) String format,
+                                             @RequestParam(required = false) String fileName) {
+        try {
+            ImportJob job = importJobService.submit(body, fileName, format);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to store import file: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJob> getImportJob(@PathVariable("jobId") Long jobId) {
+        return ResponseEntity.ok(importJobService.getJob(jobId));
+    }
+
+    @PostMapping("/import/{jobId}/resume")
+    public ResponseEntity<?> resumeImportJob(@PathVariable("jobId") Long jobId) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(importJobService.resume(jobId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    @ExceptionHandler(EntityNotFoundException.class)
+    public ResponseEntity<String> handleEntityNotFound(EntityNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+}
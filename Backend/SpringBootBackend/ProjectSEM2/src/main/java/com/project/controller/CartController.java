@@ -1,6 +1,8 @@
 package com.project.controller;
 
 import com.project.model.CartItem;
+import com.project.model.dto.CartBatchOperation;
+import com.project.service.CartPricingService;
 
 import com.project.service.CartService;
 import com.project.service.CustomerService;
@@ -24,6 +26,9 @@ public class CartController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CartPricingService cartPricingService;
+
     /**
      * Get all items in the customer's cart
      */
@@ -43,6 +48,21 @@ public class CartController {
         }
     }
 
+    /**
+     * Get the priced cart: line totals, grand total and item count
+     */
+    @GetMapping("/{customerId}/summary")
+    public ResponseEntity<?> getCartSummary(@PathVariable Long customerId) {
+        try {
+            return ResponseEntity.ok(cartPricingService.getSummary(customerId));
+        } catch (Exception e) {
+            System.err.println("Error in getCartSummary: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving cart summary: " + e.getMessage());
+        }
+    }
+
     /**
      * Add a product to the cart
      */
@@ -65,6 +85,8 @@ public class CartController {
             
             System.out.println("Successfully added product to cart");
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             System.err.println("Error in addToCart: " + e.getMessage());
             e.printStackTrace();
@@ -134,6 +156,27 @@ public class CartController {
         }
     }
 
+    /**
+     * Apply a list of add/update/remove operations in one request and return the
+     * resulting cart items. Either all operations are applied or none.
+     */
+    @PostMapping("/{customerId}/batch")
+    public ResponseEntity<?> applyCartBatch(
+            @PathVariable Long customerId,
+            @RequestBody List<CartBatchOperation> operations) {
+        try {
+            List<CartItem> cartItems = cartService.applyCartBatch(customerId, operations);
+            return ResponseEntity.ok(cartItems);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error applying cart batch: " + e.getMessage());
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error updating cart: " + e.getMessage());
+        }
+    }
+
     /**
      * Clear all items from the customer's cart
      */
@@ -1,12 +1,15 @@
 package com.project.controller;
 
 import com.project.model.Category;
+import com.project.service.CatalogVersion;
 import com.project.service.CategoryService;
+import com.project.service.CategorySummaryService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 @RestController
@@ -15,16 +18,32 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersion catalogVersion;
+    private final CategorySummaryService categorySummaryService;
 
     // Constructor injection
     @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, CatalogVersion catalogVersion,
+                              CategorySummaryService categorySummaryService) {
         this.categoryService = categoryService;
+        this.catalogVersion = catalogVersion;
+        this.categorySummaryService = categorySummaryService;
     }
 
     @GetMapping
-    public List<Category> getAllCategories() {
-        return categoryService.getAllCategories();
+    public ResponseEntity<List<?>> getAllCategories(
+            @RequestParam(defaultValue = "false") boolean withStats,
+            WebRequest request) {
+        String etag = catalogVersion.etag(withStats ? "category-stats" : "categories");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        List<Category> categories = categoryService.getAllCategories();
+        if (withStats) {
+            // Product counts and price ranges come from memory, not an aggregation query
+            return ResponseEntity.ok().eTag(etag).body(categorySummaryService.summarize(categories));
+        }
+        return ResponseEntity.ok().eTag(etag).body(categories);
     }
     
     @GetMapping("/{id}")
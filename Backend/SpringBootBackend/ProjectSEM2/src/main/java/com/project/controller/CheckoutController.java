@@ -2,10 +2,13 @@ package com.project.controller;
 
 import com.project.model.*;
 import com.project.model.dto.CartItemDTO;
+import com.project.model.dto.CartSummaryDTO;
+import com.project.model.dto.CartSummaryLineDTO;
 import com.project.model.dto.OrderRequest;
 import com.project.repository.AddressRepository;
 import com.project.repository.CartRepository;
 
+import com.project.service.CartPricingService;
 import com.project.service.CartService;
 import com.project.service.CustomerService;
 import com.project.service.OrderService;
@@ -33,6 +36,9 @@ public class CheckoutController {
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private CartPricingService cartPricingService;
+
     @Autowired
     private CustomerService customerService;
 
@@ -151,8 +157,10 @@ public class CheckoutController {
                         .orElseThrow(() -> new RuntimeException("Customer has no addresses."));
             }
 
-            List<CartItem> cartItems = cartService.getCartItems(customerId);
-            if (cartItems.isEmpty()) {
+            // Cached cart summary; only lines whose product changed since it was priced are repriced
+            CartSummaryDTO summary = cartPricingService.getSummary(customerId);
+            // Lines whose product was deleted are not counted and not ordered
+            if (summary.getItemCount() == 0) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Cart is empty.");
             }
 
@@ -164,12 +172,13 @@ public class CheckoutController {
             // The service will now handle transaction ID generation if null
             orderRequest.setTransactionId(transactionId);
 
-            List<CartItemDTO> cartItemDTOs = cartItems.stream()
-                    .map(cartItem -> {
+            List<CartItemDTO> cartItemDTOs = summary.getLines().stream()
+                    .filter(CartSummaryLineDTO::isAvailable)
+                    .map(line -> {
                         CartItemDTO dto = new CartItemDTO();
-                        dto.setId(cartItem.getProduct().getId());
-                        dto.setQuantity(cartItem.getQuantity());
-                        dto.setPrice(cartItem.getProduct().getPrice());
+                        dto.setId(line.getProductId());
+                        dto.setQuantity(line.getQuantity());
+                        dto.setPrice(line.getUnitPrice());
                         return dto;
                     })
                     .collect(Collectors.toList());
@@ -5,7 +5,9 @@ import com.paypal.api.payments.Payment;
 import com.paypal.base.rest.PayPalRESTException;
 import com.project.model.*;
 import com.project.model.dto.CartItemDTO;
+import com.project.model.dto.CartSummaryDTO;
 import com.project.model.dto.OrderRequest;
+import com.project.service.CartPricingService;
 import com.project.service.CartService;
 import com.project.service.CustomerService;
 import com.project.service.OrderService;
@@ -41,6 +43,9 @@ public class PayPalController {
     @Autowired
     private CartService cartService;
 
+    @Autowired
+    private CartPricingService cartPricingService;
+
     @Autowired
     private EmailService emailService;
 
@@ -58,17 +63,12 @@ public class PayPalController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("Customer not found with ID: " + customerId);
             }
-            List<CartItem> cartItems = cartService.getCartItems(customerId);
-            if (cartItems.isEmpty()) {
+            CartSummaryDTO summary = cartPricingService.getSummary(customerId);
+            if (summary.getItemCount() == 0) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body("Cart is empty");
             }
-            BigDecimal total = BigDecimal.ZERO;
-            for (CartItem item : cartItems) {
-                BigDecimal itemPrice = item.getProduct().getPrice();
-                BigDecimal itemTotal = itemPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
-                total = total.add(itemTotal);
-            }
+            BigDecimal total = summary.getTotal();
 
             Payment payment = paypalService.createPayment(
                     total, 
@@ -144,7 +144,7 @@ public class PayPalController {
                 }
 
                 // Get cart items
-                List<CartItem> cartItems = cartService.getCartItems(customerId);
+                List<CartItem> cartItems = cartService.getCartItemsForCheckout(customerId);
                 if (cartItems.isEmpty()) {
                     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                             .body("Cart is empty");
@@ -1,17 +1,38 @@
 package com.project.controller;
 
 import com.project.model.Product;
+import com.project.model.dto.CursorSlice;
+import com.project.model.dto.FacetedSearchResult;
+import com.project.model.dto.ProductCardDTO;
+import com.project.model.dto.SuggestionDTO;
+import com.project.service.CatalogVersion;
+import com.project.service.ProductCache;
+import com.project.service.ProductFacetService;
 import com.project.service.ProductService; // Import the service
+import com.project.service.ProductSuggester;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.bind.annotation.RequestParam; // Import @RequestParam
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.Collections; // Import for Collections.emptyList()
 
 @RestController
@@ -19,44 +40,176 @@ import java.util.Collections; // Import for Collections.emptyList()
 @CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"}, allowCredentials = "true")
 public class ProductController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ProductService productService;
+    private final ProductCache productCache;
+    private final ProductSuggester productSuggester;
+    private final ProductFacetService productFacetService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectWriter jsonWriter;
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductCache productCache,
+                             ProductSuggester productSuggester, ProductFacetService productFacetService,
+                             CatalogVersion catalogVersion, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.productCache = productCache;
+        this.productSuggester = productSuggester;
+        this.productFacetService = productFacetService;
+        this.catalogVersion = catalogVersion;
+        this.jsonWriter = objectMapper.writer();
     }
 
     @GetMapping
-    public ResponseEntity<Page<Product>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String keyword,
-            Pageable pageable) {
-        Page<Product> products = productService.findWithFilters(categoryId, keyword, pageable);
-        return ResponseEntity.ok(products);
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "full") String view,
+            Pageable pageable,
+            WebRequest request) {
+        boolean cardView = isCardView(view);
+        // Taken before reading, so a write that lands mid-request yields a tag that is already stale
+        String etag = catalogVersion.etag("products");
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        Object body;
+        // Passing "after" (empty for the first slice) switches to cursor pagination
+        if (after != null) {
+            CursorSlice<Product> slice = productService.findWithFiltersAfter(categoryId, keyword, after, pageable);
+            if (cardView) {
+                List<ProductCardDTO> cards = slice.getContent().stream().map(ProductCardDTO::from).collect(Collectors.toList());
+                body = new CursorSlice<>(cards, slice.getSize(), slice.isHasNext(), slice.getNextCursor());
+            } else {
+                body = slice;
+            }
+        } else if (cardView) {
+            body = productService.findCardsWithFilters(categoryId, keyword, pageable);
+        } else {
+            Page<Product> products = productService.findWithFilters(categoryId, keyword, pageable);
+            body = products;
+        }
+        return ResponseEntity.ok().eTag(etag).body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProductById(@PathVariable("id") Long id) {
+    public ResponseEntity<?> getProductById(@PathVariable("id") Long id, WebRequest request) {
+        // A cached copy tells us the current version, so a revalidation needs no database read
+        Optional<Long> cachedVersion = productCache.peekVersion(id);
+        if (cachedVersion.isPresent()) {
+            String etag = productEtag(id, cachedVersion.get());
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
         try {
             Product product = productService.getProductById(id);
-            return ResponseEntity.ok(product);
+            String etag = productEtag(id, product.getVersion());
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(product);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(
-            @RequestParam(name = "keyword", required = false) String keyword) {
+    public ResponseEntity<List<?>> searchProducts(
+            @RequestParam(name = "keyword", required = false) String keyword,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        boolean cardView = isCardView(view);
         if (keyword == null || keyword.trim().isEmpty()) {
-            return ResponseEntity.ok(productService.getAllProducts());
+            return ResponseEntity.ok(cardView ? productService.getAllProductCards() : productService.getAllProducts());
         }
-        List<Product> products = productService.findProductsByKeyword(keyword);
+        List<?> products = searchByKeyword(keyword, cardView, fuzzy);
         if (products.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Same search as above for clients sending {@code Accept: application/x-ndjson}: one JSON
+     * object per line, written with chunked transfer as rows arrive. Without a keyword the
+     * whole catalog is streamed from the database, so memory use does not grow with its size.
+     */
+    @GetMapping(value = "/search", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamProducts(
+            @RequestParam(name = "keyword", required = false) String keyword,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(defaultValue = "false") boolean fuzzy) {
+        boolean cardView = isCardView(view);
+        boolean all = keyword == null || keyword.trim().isEmpty();
+        StreamingResponseBody body = out -> {
+            Consumer<Object> lines = ndjsonLines(out);
+            if (!all) {
+                searchByKeyword(keyword, cardView, fuzzy).forEach(lines);
+            } else if (cardView) {
+                productService.streamAllProductCards(lines::accept);
+            } else {
+                productService.streamAllProducts(lines::accept);
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    private List<?> searchByKeyword(String keyword, boolean cardView, boolean fuzzy) {
+        if (fuzzy) {
+            return cardView
+                    ? productService.findProductCardsByKeywordFuzzy(keyword)
+                    : productService.findProductsByKeywordFuzzy(keyword);
+        }
+        return cardView
+                ? productService.findProductCardsByKeyword(keyword)
+                : productService.findProductsByKeyword(keyword);
+    }
+
+    private Consumer<Object> ndjsonLines(OutputStream out) {
+        return item -> {
+            try {
+                out.write(jsonWriter.writeValueAsBytes(item));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    @GetMapping("/faceted")
+    public ResponseEntity<FacetedSearchResult<?>> facetedSearch(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "full") String view,
+            Pageable pageable) {
+        boolean cardView = isCardView(view);
+        FacetedSearchResult<Product> result = productFacetService.search(keyword, categoryId, minPrice, maxPrice, pageable);
+        if (cardView) {
+            List<ProductCardDTO> cards = result.getContent().stream().map(ProductCardDTO::from).collect(Collectors.toList());
+            return ResponseEntity.ok(new FacetedSearchResult<>(cards, result.getPage(), result.getSize(),
+                    result.getTotalElements(), result.getCategoryCounts(), result.getPriceBuckets()));
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam(name = "q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productSuggester.suggest(query, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(productCache.getStats());
+    }
+
     @PostMapping
     public ResponseEntity<Product> createProduct(@RequestBody Product product) {
         Product createdProduct = productService.createProduct(product);
@@ -83,7 +236,22 @@ public class ProductController {
         }
     }
 
-    
+    // Strong ETag of one product; the version changes with every write
+    private static String productEtag(Long id, Long version) {
+        return "\"product-" + id + "-" + version + "\"";
+    }
+
+    // "card" returns the lean listing projection, "full" the whole product entity
+    private static boolean isCardView(String view) {
+        if ("card".equalsIgnoreCase(view)) {
+            return true;
+        }
+        if ("full".equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unknown view: " + view + " (expected full or card)");
+    }
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<String> handleEntityNotFound(EntityNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
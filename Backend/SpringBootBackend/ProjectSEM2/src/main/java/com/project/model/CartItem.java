@@ -3,9 +3,13 @@ package com.project.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cart_item")
+// One row per product and size in a cart; CartService's upsert relies on it. On a table that
+// already holds duplicates ddl-auto cannot add it, so CartService merges them and adds it at startup.
+@Table(name = "cart_item", uniqueConstraints = @UniqueConstraint(
+        name = "uk_cart_item_cart_product_size", columnNames = {"cart_id", "product_id", "size"}))
 @JsonIgnoreProperties({"cart"})
 public class CartItem {
     @Id
@@ -25,6 +29,17 @@ public class CartItem {
 
     private String size;
 
+    // Last time the line was added to or changed; the abandoned-cart sweeper reads it.
+    // Rows that predate the column get the time it was added.
+    @Column(name = "updated_at", columnDefinition = "datetime(6) default current_timestamp(6)")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -65,4 +80,12 @@ public class CartItem {
     public void setSize(String size) {
         this.size = size;
     }
-}
\ No newline at end of file
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
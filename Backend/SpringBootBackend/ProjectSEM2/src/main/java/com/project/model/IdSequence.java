@@ -0,0 +1,35 @@
+package com.project.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Backing row for {@link com.project.service.IdBlockAllocator}: the next unreserved value
+ * of a named sequence of manually assigned keys. Only mapped so the table is created with
+ * the schema; the allocator reads and advances it with plain SQL.
+ */
+@Entity
+@Table(name = "id_sequence")
+public class IdSequence {
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
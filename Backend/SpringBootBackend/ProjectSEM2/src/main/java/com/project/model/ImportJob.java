@@ -0,0 +1,212 @@
+package com.project.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A background catalog import. {@code processedRecords} is the checkpoint: it is updated in
+ * the same transaction as each chunk of rows, so a restarted job skips exactly the records
+ * that were committed.
+ */
+@Entity
+@Table(name = "import_job")
+public class ImportJob {
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "import_job_id")
+    private Long id;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    // "json" or "xlsx"
+    @Column(name = "format", nullable = false, length = 10)
+    private String format;
+
+    // Uploaded file kept on disk until the job completes; a server path, so never serialized
+    @JsonIgnore
+    @Column(name = "storage_path", length = 1000)
+    private String storagePath;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    // Null until the worker has counted the records of the file
+    @Column(name = "total_records")
+    private Long totalRecords;
+
+    @Column(name = "processed_records", nullable = false)
+    private long processedRecords;
+
+    @Column(name = "categories_inserted", nullable = false)
+    private int categoriesInserted;
+
+    @Column(name = "categories_updated", nullable = false)
+    private int categoriesUpdated;
+
+    @Column(name = "products_inserted", nullable = false)
+    private int productsInserted;
+
+    @Column(name = "products_updated", nullable = false)
+    private int productsUpdated;
+
+    @Column(name = "rejected", nullable = false)
+    private int rejected;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Percentage of records processed, or null while the total is unknown
+    public Integer getPercentComplete() {
+        if (totalRecords == null) {
+            return null;
+        }
+        if (totalRecords == 0) {
+            return 100;
+        }
+        return (int) Math.min(100, processedRecords * 100 / totalRecords);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getStoragePath() {
+        return storagePath;
+    }
+
+    public void setStoragePath(String storagePath) {
+        this.storagePath = storagePath;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getTotalRecords() {
+        return totalRecords;
+    }
+
+    public void setTotalRecords(Long totalRecords) {
+        this.totalRecords = totalRecords;
+    }
+
+    public long getProcessedRecords() {
+        return processedRecords;
+    }
+
+    public void setProcessedRecords(long processedRecords) {
+        this.processedRecords = processedRecords;
+    }
+
+    public int getCategoriesInserted() {
+        return categoriesInserted;
+    }
+
+    public void setCategoriesInserted(int categoriesInserted) {
+        this.categoriesInserted = categoriesInserted;
+    }
+
+    public int getCategoriesUpdated() {
+        return categoriesUpdated;
+    }
+
+    public void setCategoriesUpdated(int categoriesUpdated) {
+        this.categoriesUpdated = categoriesUpdated;
+    }
+
+    public int getProductsInserted() {
+        return productsInserted;
+    }
+
+    public void setProductsInserted(int productsInserted) {
+        this.productsInserted = productsInserted;
+    }
+
+    public int getProductsUpdated() {
+        return productsUpdated;
+    }
+
+    public void setProductsUpdated(int productsUpdated) {
+        this.productsUpdated = productsUpdated;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -5,6 +5,11 @@ import java.math.BigDecimal; // Added for price
 
 
 @Entity
+@Table(name = "product", indexes = {
+        // Seek indexes for the cursor-paginated listing: (sort key, product_id)
+        @Index(name = "idx_product_category_id", columnList = "category_id, product_id"),
+        @Index(name = "idx_product_price_id", columnList = "price, product_id")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY) // Assuming auto-increment, diagram shows INTEGER
@@ -123,6 +128,14 @@ public class Product {
         this.stockQuantity = stockQuantity;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Long getCategoryId() {
         return categoryId;
     }
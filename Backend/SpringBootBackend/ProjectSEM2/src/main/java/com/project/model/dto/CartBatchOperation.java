@@ -0,0 +1,55 @@
+package com.project.model.dto;
+
+/**
+ * One change in a batch cart update:
+ * {@code add} (productId, quantity, size), {@code update} (cartItemId, quantity; a
+ * quantity of 0 or less removes the item) or {@code remove} (cartItemId).
+ */
+public class CartBatchOperation {
+    private String op;
+    private Long cartItemId;
+    private Long productId;
+    private Integer quantity;
+    private String size;
+
+    // Getters and Setters
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+
+    public void setCartItemId(Long cartItemId) {
+        this.cartItemId = cartItemId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,59 @@
+package com.project.model.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Priced view of a customer's cart. {@code pricesChanged} is set when a product's price
+ * changed after the cart was last edited, so the client can tell the customer before
+ * checkout.
+ */
+public class CartSummaryDTO {
+    private Long customerId;
+    private List<CartSummaryLineDTO> lines = new ArrayList<>();
+    private int itemCount;
+    private BigDecimal total = BigDecimal.ZERO;
+    private boolean pricesChanged;
+
+    // Getters and Setters
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public List<CartSummaryLineDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<CartSummaryLineDTO> lines) {
+        this.lines = lines;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(int itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public boolean isPricesChanged() {
+        return pricesChanged;
+    }
+
+    public void setPricesChanged(boolean pricesChanged) {
+        this.pricesChanged = pricesChanged;
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One priced cart line. {@code productVersion} is the product version the line was
+ * priced at; the line is repriced when the product's version moves on. A line whose
+ * product was deleted is not {@code available}: it stays visible but is left out of
+ * the cart total.
+ */
+public class CartSummaryLineDTO {
+    private Long cartItemId;
+    private Long productId;
+    private String productName;
+    private String image;
+    private String size;
+    private int quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal lineTotal;
+    private Long productVersion;
+    private boolean available = true;
+
+    // Getters and Setters
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+
+    public void setCartItemId(Long cartItemId) {
+        this.cartItemId = cartItemId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+    }
+
+    public String getSize() {
+        return size;
+    }
+
+    public void setSize(String size) {
+        this.size = size;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public BigDecimal getLineTotal() {
+        return lineTotal;
+    }
+
+    public void setLineTotal(BigDecimal lineTotal) {
+        this.lineTotal = lineTotal;
+    }
+
+    public Long getProductVersion() {
+        return productVersion;
+    }
+
+    public void setProductVersion(Long productVersion) {
+        this.productVersion = productVersion;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * A category with the number of active products in it and their price range.
+ * Prices are null when the category has no priced products.
+ */
+public class CategorySummaryDTO {
+    private Long id;
+    private String name;
+    private int productCount;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    public CategorySummaryDTO(Long id, String name, int productCount, BigDecimal minPrice, BigDecimal maxPrice) {
+        this.id = id;
+        this.name = name;
+        this.productCount = productCount;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getProductCount() {
+        return productCount;
+    }
+
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+}
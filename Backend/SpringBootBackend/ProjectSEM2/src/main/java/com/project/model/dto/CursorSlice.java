@@ -0,0 +1,37 @@
+package com.project.model.dto;
+
+import java.util.List;
+
+/**
+ * One slice of a cursor-paginated listing. Pass {@code nextCursor} back as the
+ * {@code after} parameter to fetch the following slice; it is null on the last slice.
+ */
+public class CursorSlice<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public CursorSlice(List<T> content, int size, boolean hasNext, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
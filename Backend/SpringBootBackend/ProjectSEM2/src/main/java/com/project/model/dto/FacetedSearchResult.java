@@ -0,0 +1,56 @@
+package com.project.model.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of search results with facet counts. Category counts ignore the selected
+ * category and price buckets ignore the selected price range, so the client can show
+ * what every alternative selection would return.
+ */
+public class FacetedSearchResult<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private Map<Long, Integer> categoryCounts;
+    private List<PriceBucketDTO> priceBuckets;
+
+    public FacetedSearchResult(List<T> content, int page, int size, long totalElements,
+                               Map<Long, Integer> categoryCounts, List<PriceBucketDTO> priceBuckets) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.categoryCounts = categoryCounts;
+        this.priceBuckets = priceBuckets;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public int getTotalPages() {
+        return size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+    }
+
+    public Map<Long, Integer> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public List<PriceBucketDTO> getPriceBuckets() {
+        return priceBuckets;
+    }
+}
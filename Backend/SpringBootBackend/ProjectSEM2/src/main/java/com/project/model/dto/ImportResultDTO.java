@@ -0,0 +1,105 @@
+package com.project.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk catalog import. Rejected entries are skipped, the rest are written;
+ * the first few rejection reasons are listed in {@code errors}.
+ */
+public class ImportResultDTO {
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private int categoriesInserted;
+    private int categoriesUpdated;
+    private int productsInserted;
+    private int productsUpdated;
+    private int rejected;
+    private List<String> errors = new ArrayList<>();
+    private long elapsedMillis;
+
+    public void reject(String reason) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(reason);
+        }
+    }
+
+    /**
+     * Adds another result's counters and errors to this one.
+     */
+    public void add(ImportResultDTO other) {
+        categoriesInserted += other.categoriesInserted;
+        categoriesUpdated += other.categoriesUpdated;
+        productsInserted += other.productsInserted;
+        productsUpdated += other.productsUpdated;
+        rejected += other.rejected;
+        elapsedMillis += other.elapsedMillis;
+        for (String error : other.errors) {
+            if (errors.size() >= MAX_REPORTED_ERRORS) {
+                break;
+            }
+            errors.add(error);
+        }
+    }
+
+    public int getCategoriesInserted() {
+        return categoriesInserted;
+    }
+
+    public void setCategoriesInserted(int categoriesInserted) {
+        this.categoriesInserted = categoriesInserted;
+    }
+
+    public int getCategoriesUpdated() {
+        return categoriesUpdated;
+    }
+
+    public void setCategoriesUpdated(int categoriesUpdated) {
+        this.categoriesUpdated = categoriesUpdated;
+    }
+
+    public int getProductsInserted() {
+        return productsInserted;
+    }
+
+    public void setProductsInserted(int productsInserted) {
+        this.productsInserted = productsInserted;
+    }
+
+    public int getProductsUpdated() {
+        return productsUpdated;
+    }
+
+    public void setProductsUpdated(int productsUpdated) {
+        this.productsUpdated = productsUpdated;
+    }
+
+    public int getInserted() {
+        return categoriesInserted + productsInserted;
+    }
+
+    public int getUpdated() {
+        return categoriesUpdated + productsUpdated;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,30 @@
+package com.project.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of matching products whose price falls in [min, max). A null bound is open.
+ */
+public class PriceBucketDTO {
+    private BigDecimal min;
+    private BigDecimal max;
+    private int count;
+
+    public PriceBucketDTO(BigDecimal min, BigDecimal max, int count) {
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public BigDecimal getMin() {
+        return min;
+    }
+
+    public BigDecimal getMax() {
+        return max;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
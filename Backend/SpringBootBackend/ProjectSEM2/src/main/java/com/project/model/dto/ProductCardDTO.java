@@ -0,0 +1,98 @@
+package com.project.model.dto;
+
+import com.project.model.Product;
+import com.project.model.StockQuantity;
+
+import java.math.BigDecimal;
+
+/**
+ * Lean listing view of a product for grid cards: no description, no extra image
+ * views and no stock breakdown, just whether anything is in stock.
+ */
+public class ProductCardDTO {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String image;
+    private Long categoryId;
+    // Filled from the category dictionary when serialized (see JacksonConfig)
+    private String categoryName;
+    private boolean inStock;
+
+    public ProductCardDTO() {
+    }
+
+    // Used by the constructor expressions in ProductRepository
+    public ProductCardDTO(Long id, String name, BigDecimal price, String image, Long categoryId, Boolean inStock) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.image = image;
+        this.categoryId = categoryId;
+        this.inStock = Boolean.TRUE.equals(inStock);
+    }
+
+    public static ProductCardDTO from(Product product) {
+        StockQuantity stock = product.getStockQuantity();
+        boolean inStock = stock != null && stock.getSQuantity() + stock.getMQuantity() + stock.getLQuantity()
+                + stock.getXlQuantity() + stock.getXxlQuantity() > 0;
+        return new ProductCardDTO(product.getId(), product.getName(), product.getPrice(), product.getImage(),
+                product.getCategoryId(), inStock);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public boolean isInStock() {
+        return inStock;
+    }
+
+    public void setInStock(boolean inStock) {
+        this.inStock = inStock;
+    }
+}
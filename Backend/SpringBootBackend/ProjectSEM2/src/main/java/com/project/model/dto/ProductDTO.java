@@ -7,6 +7,9 @@ public class ProductDTO {
     private String description;
     private String price;
     private String image;
+    private String imageView2;
+    private String imageView3;
+    private String imageView4;
 
 
     public Long getId() {
@@ -59,4 +62,28 @@ public class ProductDTO {
         this.image = image;
     }
 
+    public String getImageView2() {
+        return imageView2;
+    }
+
+    public void setImageView2(String imageView2) {
+        this.imageView2 = imageView2;
+    }
+
+    public String getImageView3() {
+        return imageView3;
+    }
+
+    public void setImageView3(String imageView3) {
+        this.imageView3 = imageView3;
+    }
+
+    public String getImageView4() {
+        return imageView4;
+    }
+
+    public void setImageView4(String imageView4) {
+        this.imageView4 = imageView4;
+    }
+
 }
@@ -0,0 +1,29 @@
+package com.project.model.dto;
+
+/**
+ * One typeahead completion. {@code type} is "product" or "category" and {@code id}
+ * is the matching product or category id.
+ */
+public class SuggestionDTO {
+    private String text;
+    private String type;
+    private Long id;
+
+    public SuggestionDTO(String text, String type, Long id) {
+        this.text = text;
+        this.type = type;
+        this.id = id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -2,17 +2,31 @@ package com.project.repository;
 
 import com.project.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    List<CartItem> findByCartId(Long cartId);
+    // Items come back with their product and its stock in the same statement; loading the
+    // EAGER product per line afterwards would cost one or two selects per item
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product p LEFT JOIN FETCH p.stockQuantity " +
+            "WHERE ci.cart.id = :cartId")
+    List<CartItem> findByCartId(@Param("cartId") Long cartId);
+
+    // One query from customer to items, without loading the cart first
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product p LEFT JOIN FETCH p.stockQuantity " +
+            "WHERE ci.cart.customer.id = :customerId")
+    List<CartItem> findByCartCustomerId(@Param("customerId") Long customerId);
     
     Optional<CartItem> findByCartIdAndProductIdAndSize(Long cartId, Long productId, String size);
 
     Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
+
+    @Query("SELECT ci.cart.customer.id FROM CartItem ci WHERE ci.id = :id")
+    Optional<Long> findCustomerIdByCartItemId(@Param("id") Long id);
     
     @Transactional
     void deleteByCartId(Long cartId);
@@ -2,6 +2,11 @@ package com.project.repository;
 
 import com.project.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // Highest id in use, or null when the table is empty
+    @Query("SELECT MAX(c.id) FROM Category c")
+    Long findMaxId();
 }
@@ -0,0 +1,29 @@
+package com.project.repository;
+
+import com.project.model.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    List<ImportJob> findByStatusInOrderByIdAsc(Collection<String> statuses);
+
+    // Runs in the caller's chunk transaction, so the checkpoint commits with the rows it covers
+    @Modifying
+    @Query("UPDATE ImportJob j SET j.processedRecords = :processed, j.categoriesInserted = :categoriesInserted, " +
+            "j.categoriesUpdated = :categoriesUpdated, j.productsInserted = :productsInserted, " +
+            "j.productsUpdated = :productsUpdated, j.rejected = :rejected, j.updatedAt = :now WHERE j.id = :id")
+    int updateProgress(@Param("id") Long id,
+                       @Param("processed") long processed,
+                       @Param("categoriesInserted") int categoriesInserted,
+                       @Param("categoriesUpdated") int categoriesUpdated,
+                       @Param("productsInserted") int productsInserted,
+                       @Param("productsUpdated") int productsUpdated,
+                       @Param("rejected") int rejected,
+                       @Param("now") LocalDateTime now);
+}
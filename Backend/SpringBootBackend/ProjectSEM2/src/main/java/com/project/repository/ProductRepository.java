@@ -1,21 +1,37 @@
 package com.project.repository;
 
 import com.project.model.Product;
+import com.project.model.dto.ProductCardDTO;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
-    // Find all active products (not deleted)
-    @Query("SELECT p FROM Product p WHERE p.deleted = 0")
+    // Find all active products (not deleted), with their stock in the same statement
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.stockQuantity WHERE p.deleted = 0")
     List<Product> findAllActive();
 
+    // Row-by-row streams for exports that must not materialize the whole catalog.
+    // A fetch size of Integer.MIN_VALUE makes MySQL Connector/J stream the result set
+    // instead of buffering it; callers must consume the stream inside a transaction and close it.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.stockQuantity WHERE p.deleted = 0 ORDER BY p.id")
+    Stream<Product> streamAllActive();
+
     @Query("SELECT p FROM Product p WHERE p.deleted = 0 " +
            "AND (:categoryId IS NULL OR p.categoryId = :categoryId) " +
            "AND (:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
@@ -33,9 +49,39 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     List<Product> findByKeywordIgnoreCase(@Param("keyword") String keyword);
     
-    // Soft delete a product by setting deleted = 1
+    // Listing projections: only the columns a product card needs, plus an in-stock flag
+    String CARD_SELECT = "SELECT new com.project.model.dto.ProductCardDTO(p.id, p.name, p.price, p.image, p.categoryId, " +
+           "CASE WHEN s.sQuantity + s.mQuantity + s.lQuantity + s.xlQuantity + s.xxlQuantity > 0 THEN true ELSE false END) " +
+           "FROM Product p LEFT JOIN p.stockQuantity s ";
+
+    @Query(CARD_SELECT + "WHERE p.deleted = 0")
+    List<ProductCardDTO> findAllActiveCards();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query(CARD_SELECT + "WHERE p.deleted = 0 ORDER BY p.id")
+    Stream<ProductCardDTO> streamAllActiveCards();
+
+    @Query(value = CARD_SELECT + "WHERE p.deleted = 0 " +
+           "AND (:categoryId IS NULL OR p.categoryId = :categoryId) " +
+           "AND (:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE p.deleted = 0 " +
+           "AND (:categoryId IS NULL OR p.categoryId = :categoryId) " +
+           "AND (:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<ProductCardDTO> findCardsWithFilters(@Param("categoryId") Long categoryId, @Param("keyword") String keyword, Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE p.deleted = 0 AND (" +
+           "LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+           "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    List<ProductCardDTO> findCardsByKeywordIgnoreCase(@Param("keyword") String keyword);
+
+    @Query(CARD_SELECT + "WHERE p.deleted = 0 AND p.id IN :ids")
+    List<ProductCardDTO> findActiveCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Soft delete a product by setting deleted = 1; the version moves too so ETags and caches see the change
     @Modifying
-    @Query("UPDATE Product p SET p.deleted = 1 WHERE p.id = :id")
+    @Query("UPDATE Product p SET p.deleted = 1, p.version = p.version + 1 WHERE p.id = :id")
     void softDeleteById(@Param("id") Long id);
     
     // Find product by ID only if it's not deleted
@@ -0,0 +1,19 @@
+package com.project.repository;
+
+import com.project.model.Product;
+import org.springframework.data.domain.Slice;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Keyset ("seek") variant of findWithFilters: returns up to {@code size} active products
+     * ordered by {@code (sortProperty, id)} that come strictly after the given position.
+     * No OFFSET and no COUNT query are issued.
+     *
+     * @param sortProperty one of {@code id}, {@code name}, {@code price}
+     * @param afterValue   sort key of the last row already seen (may be null for null keys)
+     * @param afterId      id of the last row already seen, or {@code null} for the first page
+     */
+    Slice<Product> findWithFiltersAfter(Long categoryId, String keyword, String sortProperty, boolean ascending,
+                                        Object afterValue, Long afterId, int size);
+}
@@ -0,0 +1,85 @@
+package com.project.repository;
+
+import com.project.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Slice<Product> findWithFiltersAfter(Long categoryId, String keyword, String sortProperty, boolean ascending,
+                                               Object afterValue, Long afterId, int size) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> product = query.from(Product.class);
+        Path<Long> id = product.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(product.get("deleted"), 0));
+        if (categoryId != null) {
+            predicates.add(cb.equal(product.get("categoryId"), categoryId));
+        }
+        if (keyword != null) {
+            // Same matching rule as the findWithFilters JPQL query
+            String pattern = "%" + keyword.toLowerCase() + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(product.get("name")), pattern),
+                    cb.like(cb.lower(product.get("description")), pattern)));
+        }
+
+        if ("id".equals(sortProperty)) {
+            if (afterId != null) {
+                predicates.add(ascending ? cb.greaterThan(id, afterId) : cb.lessThan(id, afterId));
+            }
+            query.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            Path<Comparable<Object>> key = product.get(sortProperty);
+            if (afterId != null) {
+                predicates.add(seekPredicate(cb, key, id, ascending, (Comparable<Object>) afterValue, afterId));
+            }
+            query.orderBy(ascending ? cb.asc(key) : cb.desc(key), ascending ? cb.asc(id) : cb.desc(id));
+        }
+        query.select(product).where(predicates.toArray(new Predicate[0]));
+
+        // Fetch one extra row to learn whether another slice follows
+        List<Product> rows = entityManager.createQuery(query)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > size;
+        List<Product> content = hasNext ? rows.subList(0, size) : rows;
+        Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, sortProperty, "id");
+        return new SliceImpl<>(new ArrayList<>(content), PageRequest.of(0, size, sort), hasNext);
+    }
+
+    // MySQL sorts NULL keys first in ascending order and last in descending order,
+    // so the seek condition has to place them on the matching side of the cursor.
+    private Predicate seekPredicate(CriteriaBuilder cb, Expression<Comparable<Object>> key, Path<Long> id,
+                                    boolean ascending, Comparable<Object> afterValue, Long afterId) {
+        if (afterValue == null) {
+            Predicate sameNullKey = cb.and(cb.isNull(key),
+                    ascending ? cb.greaterThan(id, afterId) : cb.lessThan(id, afterId));
+            return ascending ? cb.or(sameNullKey, cb.isNotNull(key)) : sameNullKey;
+        }
+        Predicate pastKey = ascending ? cb.greaterThan(key, afterValue) : cb.lessThan(key, afterValue);
+        Predicate sameKey = cb.and(cb.equal(key, afterValue),
+                ascending ? cb.greaterThan(id, afterId) : cb.lessThan(id, afterId));
+        return ascending ? cb.or(pastKey, sameKey) : cb.or(pastKey, sameKey, cb.isNull(key));
+    }
+}
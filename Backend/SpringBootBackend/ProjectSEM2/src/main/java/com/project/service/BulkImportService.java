@@ -0,0 +1,569 @@
+package com.project.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.model.dto.CategoryDTO;
+import com.project.model.dto.ImportResultDTO;
+import com.project.model.dto.ProductDTO;
+import com.project.util.XlsxRowReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk import of catalog data, either a {@link com.project.model.dto.DataImportDTO} JSON
+ * payload or a product spreadsheet. Input is read record by record (Jackson's streaming
+ * parser, POI's SAX reader), so a file is never held in memory as a whole. Records are
+ * written in chunks, each chunk as multi-row upserts in its own transaction.
+ *
+ * Every element of the JSON arrays (categories, then products, in document order) and
+ * every spreadsheet row counts as one record. A {@link ChunkListener} runs inside each
+ * chunk's transaction, so a caller can checkpoint the record position together with the
+ * rows and later resume by skipping the records already committed.
+ *
+ * Rows are written with plain SQL and skip the per-entity change events, so a
+ * {@link CatalogImportedEvent} is published at the end for the in-memory views to rebuild.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final int NAME_MAX_LENGTH = 255;
+    private static final int DESCRIPTION_MAX_LENGTH = 1000;
+    private static final int IMAGE_MAX_LENGTH = 255;
+    // A product row binds 9 parameters and MySQL allows 65535 per statement
+    private static final int MAX_BATCH_SIZE = 7000;
+    // product.price is DECIMAL(10, 2)
+    private static final int PRICE_PRECISION = 10;
+    // Same layout as ProductImporter: description, image_url, image_view_2..4, name, price
+    private static final int XLSX_COLUMNS = 7;
+
+    private static final String CATEGORY_UPSERT_PREFIX = "INSERT INTO category (id, name) VALUES ";
+    private static final String CATEGORY_UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE name = VALUES(name)";
+    private static final String PRODUCT_UPSERT_PREFIX = "INSERT INTO product (product_id, name, description, price, "
+            + "image_url, image_view_2, image_view_3, image_view_4, category_id, deleted, version) VALUES ";
+    private static final String PRODUCT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)";
+    private static final String PRODUCT_UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE name = VALUES(name), "
+            + "description = COALESCE(VALUES(description), description), price = VALUES(price), "
+            + "image_url = COALESCE(VALUES(image_url), image_url), "
+            + "image_view_2 = COALESCE(VALUES(image_view_2), image_view_2), "
+            + "image_view_3 = COALESCE(VALUES(image_view_3), image_view_3), "
+            + "image_view_4 = COALESCE(VALUES(image_view_4), image_view_4), "
+            + "category_id = VALUES(category_id), deleted = 0, version = version + 1";
+
+    /**
+     * Called inside the transaction of every chunk after its rows are written, so whatever
+     * it records commits or rolls back together with the chunk.
+     */
+    public interface ChunkListener {
+        void chunkWritten(long recordsDone, ImportResultDTO totals);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdBlockAllocator idBlockAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    @Autowired
+    public BulkImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             IdBlockAllocator idBlockAllocator,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${import.batch-size:1000}") int batchSize) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("import.batch-size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.idBlockAllocator = idBlockAllocator;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports a JSON object of the form {@code {"categories": [...], "products": [...]}}.
+     * Categories are upserted by id (a missing id gets a newly allocated one). Products with
+     * an id are upserted, products without one are inserted.
+     *
+     * @throws IllegalArgumentException when the payload is not shaped like DataImportDTO
+     */
+    public ImportResultDTO importCatalog(InputStream in) throws IOException {
+        return importJson(in, 0, new ImportResultDTO(), null);
+    }
+
+    /**
+     * Resumable form of {@link #importCatalog}: skips the first {@code skipRecords} records
+     * and adds to {@code totals}.
+     */
+    public ImportResultDTO importJson(InputStream in, long skipRecords, ImportResultDTO totals,
+                                      ChunkListener listener) throws IOException {
+        ImportSession session = new ImportSession(skipRecords, totals, listener);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            forEachJsonArray(parser, (field, array) -> {
+                while (array.nextToken() != JsonToken.END_ARRAY) {
+                    if (session.skipRecord()) {
+                        array.skipChildren();
+                    } else if ("categories".equals(field)) {
+                        session.category(objectMapper.readValue(array, CategoryDTO.class));
+                    } else {
+                        session.product(objectMapper.readValue(array, ProductDTO.class));
+                    }
+                }
+            });
+            session.flushRemaining();
+        } finally {
+            // Chunks already committed stay committed, so the views must catch up even on failure
+            session.finish();
+        }
+        return session.result();
+    }
+
+    /**
+     * Imports the product rows of a spreadsheet laid out like the one ProductImporter reads,
+     * skipping the first {@code skipRecords} rows. Every row is inserted as a new product.
+     */
+    public ImportResultDTO importXlsx(File file, long skipRecords, ImportResultDTO totals,
+                                      ChunkListener listener) throws Exception {
+        ImportSession session = new ImportSession(skipRecords, totals, listener);
+        try {
+            XlsxRowReader.read(file, XLSX_COLUMNS, cells -> {
+                if (!session.skipRecord()) {
+                    session.product(productFromRow(cells));
+                }
+            });
+            session.flushRemaining();
+        } finally {
+            session.finish();
+        }
+        return session.result();
+    }
+
+    /**
+     * Number of records {@link #importJson} would read, found with a parse-only pass.
+     */
+    public long countJsonRecords(InputStream in) throws IOException {
+        long[] count = {0};
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            forEachJsonArray(parser, (field, array) -> {
+                while (array.nextToken() != JsonToken.END_ARRAY) {
+                    array.skipChildren();
+                    count[0]++;
+                }
+            });
+        }
+        return count[0];
+    }
+
+    public long countXlsxRecords(File file) throws Exception {
+        long[] count = {0};
+        XlsxRowReader.read(file, XLSX_COLUMNS, cells -> count[0]++);
+        return count[0];
+    }
+
+    private interface ArrayHandler {
+        void handle(String field, JsonParser parser) throws IOException;
+    }
+
+    // Calls the handler with the parser on the opening token of the categories and products arrays
+    private static void forEachJsonArray(JsonParser parser, ArrayHandler handler) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("Import payload must be a JSON object with categories and products arrays");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (("categories".equals(field) || "products".equals(field)) && value != JsonToken.VALUE_NULL) {
+                if (value != JsonToken.START_ARRAY) {
+                    throw new IllegalArgumentException("\"" + field + "\" must be an array");
+                }
+                handler.handle(field, parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static ProductDTO productFromRow(String[] cells) {
+        ProductDTO product = new ProductDTO();
+        product.setDescription(cells[0]);
+        product.setImage(cells[1]);
+        product.setImageView2(cells[2]);
+        product.setImageView3(cells[3]);
+        product.setImageView4(cells[4]);
+        product.setName(cells[5]);
+        // Formatted cells may carry grouping separators ("1,200")
+        product.setPrice(cells[6] == null ? null : cells[6].replace(",", ""));
+        return product;
+    }
+
+    /**
+     * One import run: rows waiting for the next chunk, the record position and the totals.
+     */
+    private class ImportSession {
+        private final long skipRecords;
+        private final ImportResultDTO result;
+        private final ChunkListener listener;
+        private final long started = System.nanoTime();
+        private final List<CategoryDTO> categories = new ArrayList<>();
+        private final List<Long> categoryRecords = new ArrayList<>();
+        private final List<ProductDTO> products = new ArrayList<>();
+        private final List<Long> productRecords = new ArrayList<>();
+        // Rejections of the records read since the last chunk; they count once the chunk commits
+        private ImportResultDTO pending = new ImportResultDTO();
+        private long recordIndex;
+        private long flushedIndex;
+        private long maxCategoryId;
+        private int categoriesWritten;
+        private int productsWritten;
+
+        private ImportSession(long skipRecords, ImportResultDTO result, ChunkListener listener) {
+            this.skipRecords = skipRecords;
+            this.result = result;
+            this.listener = listener;
+            this.flushedIndex = skipRecords;
+        }
+
+        // True, consuming the record, while still before the resume point
+        private boolean skipRecord() {
+            if (recordIndex < skipRecords) {
+                recordIndex++;
+                return true;
+            }
+            return false;
+        }
+
+        private void category(CategoryDTO category) {
+            String problem = validateCategory(category);
+            if (problem != null) {
+                pending.reject("record " + recordIndex + " (category): " + problem);
+            } else {
+                categories.add(category);
+                categoryRecords.add(recordIndex);
+            }
+            recordIndex++;
+            flushIfFull();
+        }
+
+        private void product(ProductDTO product) {
+            String problem = validateProduct(product);
+            if (problem != null) {
+                pending.reject("record " + recordIndex + " (product): " + problem);
+            } else {
+                products.add(product);
+                productRecords.add(recordIndex);
+            }
+            recordIndex++;
+            flushIfFull();
+        }
+
+        // Rejected records count as well, so checkpoints keep moving through bad stretches of input
+        private void flushIfFull() {
+            if (recordIndex - flushedIndex >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            ChunkOutcome outcome;
+            try {
+                outcome = transactionTemplate.execute(status -> writeChunk(null));
+            } catch (DataAccessException e) {
+                // One bad row fails the whole multi-row statement; write the chunk row by row
+                // instead and reject only the rows the database refuses, so the checkpoint moves on
+                logger.warn("Chunk ending at record {} failed, retrying it row by row: {}",
+                        recordIndex, e.getMostSpecificCause().getMessage());
+                outcome = transactionTemplate.execute(this::writeChunk);
+            }
+            result.add(outcome.counts);
+            for (CategoryDTO category : outcome.categories) {
+                maxCategoryId = Math.max(maxCategoryId, category.getId());
+            }
+            categoriesWritten += outcome.categories.size();
+            productsWritten += outcome.productsWritten;
+            categories.clear();
+            categoryRecords.clear();
+            products.clear();
+            productRecords.clear();
+            pending = new ImportResultDTO();
+            flushedIndex = recordIndex;
+        }
+
+        /**
+         * Writes the pending rows and runs the listener, inside the chunk transaction. With a
+         * transaction status the rows are written one at a time, each behind a savepoint.
+         */
+        private ChunkOutcome writeChunk(TransactionStatus rowByRow) {
+            ChunkOutcome outcome = new ChunkOutcome();
+            outcome.counts.add(pending);
+            if (rowByRow == null) {
+                writeCategories(categories, outcome.counts);
+                outcome.categories.addAll(categories);
+                outcome.productsWritten = writeProducts(products, productRecords, outcome.counts);
+            } else {
+                for (int i = 0; i < categories.size(); i++) {
+                    CategoryDTO category = categories.get(i);
+                    if (writeRow(rowByRow, outcome.counts, "record " + categoryRecords.get(i) + " (category)",
+                            () -> writeCategories(List.of(category), outcome.counts))) {
+                        outcome.categories.add(category);
+                    }
+                }
+                for (int i = 0; i < products.size(); i++) {
+                    List<ProductDTO> row = List.of(products.get(i));
+                    List<Long> rowRecord = List.of(productRecords.get(i));
+                    int[] written = {0};
+                    writeRow(rowByRow, outcome.counts, "record " + productRecords.get(i) + " (product)",
+                            () -> written[0] = writeProducts(row, rowRecord, outcome.counts));
+                    outcome.productsWritten += written[0];
+                }
+            }
+            if (listener != null) {
+                ImportResultDTO totals = new ImportResultDTO();
+                totals.add(result);
+                totals.add(outcome.counts);
+                listener.chunkWritten(recordIndex, totals);
+            }
+            return outcome;
+        }
+
+        // False, with the row rejected and undone, when the database refuses it
+        private boolean writeRow(TransactionStatus status, ImportResultDTO counts, String record, Runnable write) {
+            Object savepoint = status.createSavepoint();
+            // Counters are only bumped after the statement succeeded, so a failed row leaves them alone
+            try {
+                write.run();
+                status.releaseSavepoint(savepoint);
+                return true;
+            } catch (DataAccessException e) {
+                status.rollbackToSavepoint(savepoint);
+                counts.reject(record + ": " + e.getMostSpecificCause().getMessage());
+                return false;
+            }
+        }
+
+        /**
+         * Writes the rows still waiting once the whole input has been read. Not called when
+         * reading or a chunk failed, so a failed chunk is neither retried nor masked here.
+         */
+        private void flushRemaining() {
+            if (recordIndex > flushedIndex) {
+                flush();
+            }
+        }
+
+        private void finish() {
+            if (maxCategoryId > 0) {
+                // Explicit category ids must never be handed out again by createCategory
+                idBlockAllocator.advancePast(CategoryServiceImpl.CATEGORY_SEQUENCE, maxCategoryId);
+            }
+            if (categoriesWritten > 0 || productsWritten > 0) {
+                eventPublisher.publishEvent(new CatalogImportedEvent(categoriesWritten, productsWritten));
+            }
+        }
+
+        private ImportResultDTO result() {
+            result.setElapsedMillis(result.getElapsedMillis() + (System.nanoTime() - started) / 1_000_000);
+            logger.info("Import finished: {} inserted, {} updated, {} rejected in {} ms",
+                    result.getInserted(), result.getUpdated(), result.getRejected(), result.getElapsedMillis());
+            return result;
+        }
+    }
+
+    private static class ChunkOutcome {
+        private final ImportResultDTO counts = new ImportResultDTO();
+        private final List<CategoryDTO> categories = new ArrayList<>();
+        private int productsWritten;
+    }
+
+    // Called inside the chunk transaction
+    private void writeCategories(List<CategoryDTO> batch, ImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(batch.size() * 2);
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (CategoryDTO category : batch) {
+            if (category.getId() == null) {
+                category.setId(idBlockAllocator.nextId(CategoryServiceImpl.CATEGORY_SEQUENCE, this::highestCategoryId));
+            }
+            args.add(category.getId());
+            args.add(category.getName().trim());
+            ids.add(category.getId());
+        }
+        Set<Long> existing = existingIds("category", "id", ids);
+        jdbcTemplate.update(CATEGORY_UPSERT_PREFIX + valueRows(batch.size(), "(?, ?)") + CATEGORY_UPSERT_SUFFIX,
+                args.toArray());
+        for (CategoryDTO category : batch) {
+            // A repeated id within the batch updates the row its first occurrence inserted
+            if (!existing.add(category.getId())) {
+                result.setCategoriesUpdated(result.getCategoriesUpdated() + 1);
+            } else {
+                result.setCategoriesInserted(result.getCategoriesInserted() + 1);
+            }
+        }
+    }
+
+    /**
+     * Called inside the chunk transaction, after the chunk's categories are written. Products
+     * whose category does not exist are rejected here rather than failing the statement.
+     *
+     * @return number of products written
+     */
+    private int writeProducts(List<ProductDTO> batch, List<Long> records, ImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<Long> categoryIds = new ArrayList<>();
+        for (ProductDTO product : batch) {
+            if (product.getCategories() != null) {
+                categoryIds.add(product.getCategories());
+            }
+        }
+        Set<Long> knownCategories = existingIds("category", "id", categoryIds);
+
+        List<ProductDTO> accepted = new ArrayList<>(batch.size());
+        List<Object> args = new ArrayList<>(batch.size() * 9);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            ProductDTO product = batch.get(i);
+            if (product.getCategories() != null && !knownCategories.contains(product.getCategories())) {
+                result.reject("record " + records.get(i) + " (product): category " + product.getCategories() + " does not exist");
+                continue;
+            }
+            accepted.add(product);
+            args.add(product.getId());
+            args.add(product.getName().trim());
+            args.add(product.getDescription());
+            args.add(parsePrice(product.getPrice()));
+            args.add(product.getImage());
+            args.add(product.getImageView2());
+            args.add(product.getImageView3());
+            args.add(product.getImageView4());
+            args.add(product.getCategories());
+            if (product.getId() != null) {
+                ids.add(product.getId());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+        Set<Long> existing = existingIds("product", "product_id", ids);
+        jdbcTemplate.update(PRODUCT_UPSERT_PREFIX + valueRows(accepted.size(), PRODUCT_ROW) + PRODUCT_UPSERT_SUFFIX,
+                args.toArray());
+        for (ProductDTO product : accepted) {
+            if (product.getId() != null && !existing.add(product.getId())) {
+                result.setProductsUpdated(result.getProductsUpdated() + 1);
+            } else {
+                result.setProductsInserted(result.getProductsInserted() + 1);
+            }
+        }
+        return accepted.size();
+    }
+
+    private static String validateCategory(CategoryDTO category) {
+        if (category.getId() != null && category.getId() <= 0) {
+            return "id must be positive";
+        }
+        if (category.getName() == null || category.getName().trim().isEmpty()) {
+            return "name is required";
+        }
+        return checkLength("name", category.getName().trim(), NAME_MAX_LENGTH);
+    }
+
+    private static String validateProduct(ProductDTO product) {
+        if (product.getId() != null && product.getId() <= 0) {
+            return "id must be positive";
+        }
+        if (product.getName() == null || product.getName().trim().isEmpty()) {
+            return "name is required";
+        }
+        String problem = checkLength("name", product.getName().trim(), NAME_MAX_LENGTH);
+        if (problem == null) {
+            problem = checkLength("description", product.getDescription(), DESCRIPTION_MAX_LENGTH);
+        }
+        String[] images = {product.getImage(), product.getImageView2(), product.getImageView3(), product.getImageView4()};
+        for (int i = 0; i < images.length && problem == null; i++) {
+            problem = checkLength("image", images[i], IMAGE_MAX_LENGTH);
+        }
+        if (problem == null && parsePrice(product.getPrice()) == null) {
+            problem = "price must be a non-negative number below 10^8, got: " + product.getPrice();
+        }
+        return problem;
+    }
+
+    // Null when the price is missing, not a number, negative or too large for DECIMAL(10, 2)
+    private static BigDecimal parsePrice(String price) {
+        if (price == null || price.trim().isEmpty()) {
+            return null;
+        }
+        BigDecimal value;
+        try {
+            value = new BigDecimal(price.trim()).setScale(2, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (value.signum() < 0 || value.precision() > PRICE_PRECISION) {
+            return null;
+        }
+        return value;
+    }
+
+    private static String checkLength(String field, String value, int maxLength) {
+        if (value != null && value.length() > maxLength) {
+            return field + " is longer than " + maxLength + " characters";
+        }
+        return null;
+    }
+
+    private Set<Long> existingIds(String table, String column, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashSet<>();
+        }
+        String sql = "SELECT " + column + " FROM " + table + " WHERE " + column + " IN (" + placeholders(ids.size()) + ")";
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, ids.toArray()));
+    }
+
+    private long highestCategoryId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM category", Long.class);
+        return maxId == null ? 0L : maxId;
+    }
+
+    // One statement per batch: far fewer round trips than a JDBC batch without rewriteBatchedStatements
+    private static String valueRows(int count, String row) {
+        StringBuilder rows = new StringBuilder(count * (row.length() + 2));
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                rows.append(", ");
+            }
+            rows.append(row);
+        }
+        return rows.toString();
+    }
+
+    private static String placeholders(int count) {
+        return valueRows(count, "?");
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.service;
+
+/**
+ * Published by {@link CartService} (and by order creation, which deletes the cart) when a
+ * cart's contents change. Item-level operations only know the item, so either the
+ * customer or the cart item is set. Listeners receive it after the surrounding
+ * transaction commits.
+ */
+public class CartChangedEvent {
+
+    private final Long customerId;
+    private final Long cartItemId;
+
+    private CartChangedEvent(Long customerId, Long cartItemId) {
+        this.customerId = customerId;
+        this.cartItemId = cartItemId;
+    }
+
+    public static CartChangedEvent forCustomer(Long customerId) {
+        return new CartChangedEvent(customerId, null);
+    }
+
+    public static CartChangedEvent forItem(Long cartItemId) {
+        return new CartChangedEvent(null, cartItemId);
+    }
+
+    /**
+     * The customer whose cart changed, or {@code null} when only the item is known.
+     */
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+}
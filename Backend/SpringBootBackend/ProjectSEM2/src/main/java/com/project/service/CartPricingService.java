@@ -0,0 +1,192 @@
+package com.project.service;
+
+import com.project.model.CartItem;
+import com.project.model.Product;
+import com.project.model.dto.CartSummaryDTO;
+import com.project.model.dto.CartSummaryLineDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Prices carts and caches the result per customer, so the cart page, PayPal and checkout
+ * all use the same totals without reloading the cart each time.
+ *
+ * A cached summary is dropped when the cart changes ({@link CartChangedEvent}). Price
+ * changes are caught line by line: each line remembers the product version it was priced
+ * at and is repriced when the product, read through the product cache, has moved on.
+ * Cached summaries are never modified; repricing produces a new one.
+ */
+@Service
+public class CartPricingService {
+
+    private final CartService cartService;
+    private final ProductService productService;
+    private final int maxSize;
+
+    // Access-ordered, so the least recently used summary is dropped first
+    private final LinkedHashMap<Long, CartSummaryDTO> summaries = new LinkedHashMap<>(16, 0.75f, true);
+    // Cart item id to customer id for the cached summaries, to resolve item-level changes
+    private final Map<Long, Long> itemOwners = new HashMap<>();
+    // Bumped on every invalidation; a summary computed across a bump is not cached
+    private long generation = 0;
+
+    @Autowired
+    public CartPricingService(CartService cartService, ProductService productService,
+                              @Value("${cart.pricing.cache.max-size:10000}") int maxSize) {
+        this.cartService = cartService;
+        this.productService = productService;
+        this.maxSize = maxSize;
+    }
+
+    public CartSummaryDTO getSummary(Long customerId) {
+        CartSummaryDTO cached;
+        long stamp;
+        synchronized (this) {
+            cached = summaries.get(customerId);
+            stamp = generation;
+        }
+        CartSummaryDTO summary = cached != null ? reprice(cached) : price(customerId, cartService.getCartItems(customerId));
+        if (summary != cached) {
+            synchronized (this) {
+                if (generation == stamp) {
+                    put(summary);
+                }
+            }
+        }
+        return summary;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCartChanged(CartChangedEvent event) {
+        generation++;
+        Long customerId = event.getCustomerId() != null ? event.getCustomerId() : itemOwners.get(event.getCartItemId());
+        if (customerId != null) {
+            remove(customerId);
+        }
+    }
+
+    private CartSummaryDTO price(Long customerId, List<CartItem> items) {
+        CartSummaryDTO summary = new CartSummaryDTO();
+        summary.setCustomerId(customerId);
+        for (CartItem item : items) {
+            CartSummaryLineDTO line = new CartSummaryLineDTO();
+            line.setCartItemId(item.getId());
+            line.setSize(item.getSize());
+            line.setQuantity(item.getQuantity());
+            if (item.getProduct() != null) {
+                applyProduct(line, item.getProduct());
+            } else {
+                line.setUnitPrice(BigDecimal.ZERO);
+                line.setLineTotal(BigDecimal.ZERO);
+            }
+            summary.getLines().add(line);
+        }
+        return totalled(summary);
+    }
+
+    // Same summary if no product moved on, otherwise a copy with the affected lines repriced
+    private CartSummaryDTO reprice(CartSummaryDTO cached) {
+        List<CartSummaryLineDTO> lines = null;
+        boolean pricesChanged = cached.isPricesChanged();
+        for (int i = 0; i < cached.getLines().size(); i++) {
+            CartSummaryLineDTO line = cached.getLines().get(i);
+            Optional<Product> product = line.getProductId() == null ? Optional.empty() : productService.findById(line.getProductId());
+            if (product.isEmpty() || product.get().getVersion() == null
+                    || product.get().getVersion().equals(line.getProductVersion())) {
+                continue;
+            }
+            if (lines == null) {
+                lines = new ArrayList<>(cached.getLines());
+            }
+            CartSummaryLineDTO repriced = copy(line);
+            applyProduct(repriced, product.get());
+            if (repriced.getUnitPrice().compareTo(line.getUnitPrice()) != 0) {
+                pricesChanged = true;
+            }
+            lines.set(i, repriced);
+        }
+        if (lines == null) {
+            return cached;
+        }
+        CartSummaryDTO summary = new CartSummaryDTO();
+        summary.setCustomerId(cached.getCustomerId());
+        summary.setLines(lines);
+        summary.setPricesChanged(pricesChanged);
+        return totalled(summary);
+    }
+
+    private static void applyProduct(CartSummaryLineDTO line, Product product) {
+        BigDecimal unitPrice = product.getPrice() != null ? product.getPrice() : BigDecimal.ZERO;
+        // Soft-deleted products stay on the line so the customer sees what was dropped, but are not charged
+        boolean available = product.getDeleted() == null || product.getDeleted() == 0;
+        line.setProductId(product.getId());
+        line.setProductName(product.getName());
+        line.setImage(product.getImage());
+        line.setProductVersion(product.getVersion());
+        line.setAvailable(available);
+        line.setUnitPrice(unitPrice);
+        line.setLineTotal(available ? unitPrice.multiply(BigDecimal.valueOf(line.getQuantity())) : BigDecimal.ZERO);
+    }
+
+    private static CartSummaryDTO totalled(CartSummaryDTO summary) {
+        BigDecimal total = BigDecimal.ZERO;
+        int itemCount = 0;
+        for (CartSummaryLineDTO line : summary.getLines()) {
+            if (!line.isAvailable()) {
+                continue;
+            }
+            total = total.add(line.getLineTotal());
+            itemCount += line.getQuantity();
+        }
+        summary.setTotal(total);
+        summary.setItemCount(itemCount);
+        return summary;
+    }
+
+    private static CartSummaryLineDTO copy(CartSummaryLineDTO line) {
+        CartSummaryLineDTO copy = new CartSummaryLineDTO();
+        copy.setCartItemId(line.getCartItemId());
+        copy.setProductId(line.getProductId());
+        copy.setProductName(line.getProductName());
+        copy.setImage(line.getImage());
+        copy.setSize(line.getSize());
+        copy.setQuantity(line.getQuantity());
+        copy.setUnitPrice(line.getUnitPrice());
+        copy.setLineTotal(line.getLineTotal());
+        copy.setProductVersion(line.getProductVersion());
+        copy.setAvailable(line.isAvailable());
+        return copy;
+    }
+
+    // Callers hold the monitor
+    private void put(CartSummaryDTO summary) {
+        remove(summary.getCustomerId());
+        summaries.put(summary.getCustomerId(), summary);
+        for (CartSummaryLineDTO line : summary.getLines()) {
+            itemOwners.put(line.getCartItemId(), summary.getCustomerId());
+        }
+        if (summaries.size() > maxSize) {
+            remove(summaries.keySet().iterator().next());
+        }
+    }
+
+    // Callers hold the monitor
+    private void remove(Long customerId) {
+        CartSummaryDTO removed = summaries.remove(customerId);
+        if (removed != null) {
+            for (CartSummaryLineDTO line : removed.getLines()) {
+                itemOwners.remove(line.getCartItemId());
+            }
+        }
+    }
+}
@@ -4,21 +4,63 @@ import com.project.model.Cart;
 import com.project.model.CartItem;
 import com.project.model.Customer;
 import com.project.model.Product;
+import com.project.model.dto.CartBatchOperation;
 import com.project.repository.CartRepository;
 import com.project.repository.CartItemRepository;
-import com.project.repository.ProductRepository;
 import com.project.repository.CustomerRepository;
+import com.project.util.KeyedLock;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 @Service
 public class CartService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CartService.class);
+
+    // On a duplicate, LAST_INSERT_ID(...) hands back the updated row's id (high 32 bits) and its
+    // new quantity (low 32 bits) as the generated key, so the statement alone describes the row.
+    // Holds while cart item ids stay below 2^31, far beyond this table's size.
+    private static final String UPSERT_CART_ITEM_SQL = "INSERT INTO cart_item (cart_id, product_id, quantity, size, updated_at) " +
+            "SELECT c.cart_id, ?, ?, ?, ? FROM cart c WHERE c.customer_id = ? " +
+            "ON DUPLICATE KEY UPDATE " +
+            "quantity = LAST_INSERT_ID((cart_item_id << 32) | (quantity + VALUES(quantity))) & 4294967295, " +
+            "updated_at = VALUES(updated_at)";
+
+    private static final String CART_ITEM_UNIQUE_KEY = "uk_cart_item_cart_product_size";
+
+    // Lines left duplicated by the old read-then-insert race are merged into the oldest one
+    private static final String MERGE_DUPLICATE_CART_ITEMS_SQL = "UPDATE cart_item keep JOIN (" +
+            "SELECT MIN(cart_item_id) AS keep_id, SUM(quantity) AS total FROM cart_item WHERE size IS NOT NULL " +
+            "GROUP BY cart_id, product_id, size HAVING COUNT(*) > 1) duplicates " +
+            "ON keep.cart_item_id = duplicates.keep_id SET keep.quantity = duplicates.total";
+    private static final String DELETE_DUPLICATE_CART_ITEMS_SQL = "DELETE duplicate FROM cart_item duplicate " +
+            "JOIN cart_item keep ON keep.cart_id = duplicate.cart_id AND keep.product_id = duplicate.product_id " +
+            "AND keep.size = duplicate.size AND keep.cart_item_id < duplicate.cart_item_id";
+
     @Autowired
     private CartRepository cartRepository;
 
@@ -26,11 +68,41 @@ public class CartService {
     private CartItemRepository cartItemRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private ProductService productService;
 
     @Autowired
     private CustomerRepository customerRepository;
 
+    // Holds carts in memory when cart.store.write-behind.enabled is set
+    @Autowired
+    private CartStore cartStore;
+
+    // Cart clicks served by the store must not open a transaction, so the database paths start their own
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Cart reads never write, so they can run read-only (and be routed to a replica)
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Serializes one customer's cart changes (double clicks, several tabs) without row locks
+    // in the database. Taken outside the transaction, so the next change sees this one committed.
+    private final KeyedLock<Long> customerLocks = new KeyedLock<>();
+
+    // The upsert only stays atomic with the unique key in place; until it is, adds take the find-or-create path
+    private volatile boolean upsertEnabled = false;
+
+    @PostConstruct
+    void initReadOnlyTransactions() {
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
     /**
      * Get or create a cart for a customer
      */
@@ -58,8 +130,110 @@ public class CartService {
     /**
      * Add a product to the customer's cart
      */
-    @Transactional
     public CartItem addItemToCart(Long customerId, Long productId, Integer quantity, String size) {
+        // Also keeps the upsert's packed (id, quantity) key meaningful: the sum it returns can only grow
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity to add must be positive, got: " + quantity);
+        }
+        CartItem added = customerLocks.callLocked(customerId, () -> addItemToCartLocked(customerId, productId, quantity, size));
+        eventPublisher.publishEvent(CartChangedEvent.forCustomer(customerId));
+        return added;
+    }
+
+    private CartItem addItemToCartLocked(Long customerId, Long productId, Integer quantity, String size) {
+        if (cartStore.isEnabled()) {
+            Product product = productService.findById(productId)
+                    .orElseThrow(() -> new RuntimeException("Product not found with ID: " + productId));
+            return cartStore.addItem(customerId, product, quantity, size);
+        }
+        return transactionTemplate.execute(status -> {
+            // A null size is not covered by the unique key (MySQL treats NULLs as distinct)
+            if (size != null && upsertEnabled) {
+                Product product = productService.findById(productId)
+                        .orElseThrow(() -> new RuntimeException("Product not found with ID: " + productId));
+                CartItem upserted = upsertCartItem(customerId, product, quantity, size);
+                if (upserted != null) {
+                    return upserted;
+                }
+            }
+            // No cart yet (or no size): the find-or-create path below
+            return addItemToCartInDatabase(customerId, productId, quantity, size);
+        });
+    }
+
+    /**
+     * Adds to the customer's cart in one statement: inserts the item, or on a duplicate
+     * (cart_id, product_id, size) bumps the existing row's quantity. Atomic under
+     * concurrent clicks, so the same product and size never ends up on two rows.
+     *
+     * @return the inserted or updated item, built from what the statement returned (its
+     *         cart is not set), or null when the customer has no cart yet
+     */
+    private CartItem upsertCartItem(Long customerId, Product product, int quantity, String size) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.execute((ConnectionCallback<CartItem>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPSERT_CART_ITEM_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                statement.setLong(1, product.getId());
+                statement.setInt(2, quantity);
+                statement.setString(3, size);
+                statement.setTimestamp(4, Timestamp.valueOf(now));
+                statement.setLong(5, customerId);
+                // 1: a new row was inserted, 2: an existing row was updated
+                int affectedRows = statement.executeUpdate();
+                if (affectedRows == 0) {
+                    return null;
+                }
+                long key;
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    if (!keys.next()) {
+                        throw new IllegalStateException("Cart item upsert returned no key");
+                    }
+                    key = keys.getLong(1);
+                }
+                CartItem item = new CartItem();
+                if (affectedRows == 1) {
+                    item.setId(key);
+                    item.setQuantity(quantity);
+                } else {
+                    item.setId(key >>> 32);
+                    item.setQuantity((int) (key & 0xFFFFFFFFL));
+                }
+                item.setProduct(product);
+                item.setSize(size);
+                item.setUpdatedAt(now);
+                return item;
+            }
+        });
+    }
+
+    /**
+     * Makes sure cart_item has the unique key the upsert relies on. ddl-auto cannot add it to
+     * a table that already holds duplicate lines, so those are merged first (quantities
+     * summed into the oldest line) and the key is added here. Until this succeeds, adds keep
+     * using the find-or-create path.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureCartItemUniqueKey() {
+        try {
+            Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.statistics " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'cart_item' AND index_name = ?",
+                    Integer.class, CART_ITEM_UNIQUE_KEY);
+            if (existing == null || existing == 0) {
+                int merged = transactionTemplate.execute(status -> {
+                    jdbcTemplate.update(MERGE_DUPLICATE_CART_ITEMS_SQL);
+                    return jdbcTemplate.update(DELETE_DUPLICATE_CART_ITEMS_SQL);
+                });
+                jdbcTemplate.execute("ALTER TABLE cart_item ADD CONSTRAINT " + CART_ITEM_UNIQUE_KEY +
+                        " UNIQUE (cart_id, product_id, size)");
+                logger.info("Merged {} duplicate cart lines and added {}", merged, CART_ITEM_UNIQUE_KEY);
+            }
+            upsertEnabled = true;
+        } catch (DataAccessException e) {
+            logger.warn("Could not add {}, cart adds keep the find-or-create path", CART_ITEM_UNIQUE_KEY, e);
+        }
+    }
+
+    private CartItem addItemToCartInDatabase(Long customerId, Long productId, Integer quantity, String size) {
         try {
             System.out.println("Adding item to cart - Customer ID: " + customerId + ", Product ID: " + productId + ", Quantity: " + quantity);
 
@@ -90,7 +264,7 @@ public class CartService {
             }
 
             // Get the product
-            Optional<Product> optionalProduct = productRepository.findById(productId);
+            Optional<Product> optionalProduct = productService.findById(productId);
             Product product;
 
             if (optionalProduct.isPresent()) {
@@ -133,8 +307,16 @@ public class CartService {
     /**
      * Update the quantity of an item in the cart
      */
-    @Transactional
     public CartItem updateCartItemQuantity(Long cartItemId, Integer quantity) {
+        Long customerId = customerOf(cartItemId);
+        CartItem updated = customerLocks.callLocked(customerId, () -> cartStore.isEnabled()
+                ? cartStore.updateQuantity(cartItemId, quantity)
+                : transactionTemplate.execute(status -> updateCartItemQuantityInDatabase(cartItemId, quantity)));
+        eventPublisher.publishEvent(itemChanged(customerId, cartItemId));
+        return updated;
+    }
+
+    private CartItem updateCartItemQuantityInDatabase(Long cartItemId, Integer quantity) {
         try {
             System.out.println("Updating cart item quantity: ID=" + cartItemId + ", quantity=" + quantity);
 
@@ -172,45 +354,64 @@ public class CartService {
     /**
      * Remove an item from the cart
      */
-    @Transactional
     public void removeItemFromCart(Long cartItemId) {
-        cartItemRepository.deleteById(cartItemId);
+        Long customerId = customerOf(cartItemId);
+        customerLocks.runLocked(customerId, () -> {
+            if (cartStore.isEnabled()) {
+                cartStore.removeItem(cartItemId);
+            } else {
+                // deleteById runs in its own repository transaction
+                cartItemRepository.deleteById(cartItemId);
+            }
+        });
+        eventPublisher.publishEvent(itemChanged(customerId, cartItemId));
     }
 
     /**
-     * Get all items in a customer's cart
+     * Runs the action while no cart change of any of the given customers can run. The ids
+     * must be in ascending order, so two callers locking several customers never deadlock.
      */
-    @Transactional
-    public List<CartItem> getCartItems(Long customerId) {
-        try {
-            System.out.println("Getting cart items for customer ID: " + customerId);
-            Optional<Cart> optionalCart = cartRepository.findByCustomerId(customerId);
-            Cart cart;
+    public <T> T withCustomerLocks(List<Long> customerIds, Supplier<T> action) {
+        return customerLocks.callLockedAll(customerIds, action);
+    }
 
-            if (optionalCart.isPresent()) {
-                cart = optionalCart.get();
-                System.out.println("Found cart with ID: " + cart.getId());
-            } else {
-                System.out.println("No cart found for customer ID: " + customerId + ". Creating a new cart.");
+    // Looked up before the change, while the item still exists; null for an unknown item,
+    // which then fails on its own without taking a lock
+    private Long customerOf(Long cartItemId) {
+        Long customerId = cartStore.isEnabled() ? cartStore.ownerOf(cartItemId) : null;
+        return customerId != null ? customerId : cartItemRepository.findCustomerIdByCartItemId(cartItemId).orElse(null);
+    }
 
-                // Find the customer
-                Optional<Customer> customerOpt = customerRepository.findById(customerId);
-                if (!customerOpt.isPresent()) {
-                    System.err.println("Customer not found with ID: " + customerId);
-                    return List.of();
-                }
+    private static CartChangedEvent itemChanged(Long customerId, Long cartItemId) {
+        return customerId != null ? CartChangedEvent.forCustomer(customerId) : CartChangedEvent.forItem(cartItemId);
+    }
 
-                // Create a new cart for the customer
-                Customer customer = customerOpt.get();
-                cart = new Cart();
-                cart.setCustomer(customer);
-                cart.setCreatedAt(LocalDateTime.now());
-                cart = cartRepository.save(cart);
-                System.out.println("Created new cart with ID: " + cart.getId());
-            }
+    /**
+     * Get all items in a customer's cart
+     */
+    public List<CartItem> getCartItems(Long customerId) {
+        if (cartStore.isEnabled()) {
+            return cartStore.getItems(customerId);
+        }
+        return readOnlyTransactionTemplate.execute(status -> getCartItemsFromDatabase(customerId));
+    }
 
-            List<CartItem> items = cartItemRepository.findByCartId(cart.getId());
-            System.out.println("Found " + items.size() + " items in cart");
+    /**
+     * Get the cart items for checkout. Pending in-memory changes are written first, so the
+     * order is built from the same cart the database holds.
+     */
+    public List<CartItem> getCartItemsForCheckout(Long customerId) {
+        if (cartStore.isEnabled()) {
+            cartStore.flush(customerId);
+        }
+        return readOnlyTransactionTemplate.execute(status -> getCartItemsFromDatabase(customerId));
+    }
+
+    // A customer without a cart simply has no items; the cart row is created by the first mutation
+    private List<CartItem> getCartItemsFromDatabase(Long customerId) {
+        try {
+            List<CartItem> items = cartItemRepository.findByCartCustomerId(customerId);
+            System.out.println("Found " + items.size() + " items in cart of customer ID: " + customerId);
             return items;
         } catch (Exception e) {
             System.err.println("Error getting cart items: " + e.getMessage());
@@ -219,14 +420,152 @@ public class CartService {
         }
     }
 
+    /**
+     * Apply several add/update/remove operations to the customer's cart at once and
+     * return the resulting items. In the database the cart's items are loaded once, all
+     * changes are made on them and written in a single transaction; if any operation is
+     * invalid nothing is applied.
+     */
+    public List<CartItem> applyCartBatch(Long customerId, List<CartBatchOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("No cart operations given");
+        }
+        operations.forEach(CartService::validateOperation);
+        List<CartItem> items = customerLocks.callLocked(customerId, () -> cartStore.isEnabled()
+                ? applyCartBatchInStore(customerId, operations)
+                : transactionTemplate.execute(status -> applyCartBatchInDatabase(customerId, operations)));
+        eventPublisher.publishEvent(CartChangedEvent.forCustomer(customerId));
+        return items;
+    }
+
+    private List<CartItem> applyCartBatchInStore(Long customerId, List<CartBatchOperation> operations) {
+        Set<Long> itemIds = cartStore.getItems(customerId).stream()
+                .map(CartItem::getId)
+                .collect(Collectors.toSet());
+        // The whole batch is played against a copy of the cart's item ids first, so an invalid
+        // operation (also one made invalid by an earlier one, like an update after a remove)
+        // leaves the cart untouched here too. The customer lock keeps the cart from changing meanwhile.
+        for (CartBatchOperation operation : operations) {
+            if (operation.getCartItemId() != null) {
+                // A client may still hold the temporary id an earlier add returned
+                Long itemId = cartStore.resolveItemId(customerId, operation.getCartItemId());
+                if (itemId == null || !itemIds.contains(itemId)) {
+                    throw new IllegalArgumentException("Cart item " + operation.getCartItemId() + " is not in this cart");
+                }
+                if ("remove".equals(operation.getOp()) || ("update".equals(operation.getOp()) && operation.getQuantity() <= 0)) {
+                    itemIds.remove(itemId);
+                }
+            }
+            if (operation.getProductId() != null && productService.findById(operation.getProductId()).isEmpty()) {
+                throw new IllegalArgumentException("Product not found with ID: " + operation.getProductId());
+            }
+        }
+        for (CartBatchOperation operation : operations) {
+            switch (operation.getOp()) {
+                case "add" -> cartStore.addItem(customerId, productService.findById(operation.getProductId()).get(),
+                        operation.getQuantity(), operation.getSize());
+                case "update" -> cartStore.updateQuantity(operation.getCartItemId(), operation.getQuantity());
+                default -> cartStore.removeItem(operation.getCartItemId());
+            }
+        }
+        return cartStore.getItems(customerId);
+    }
+
+    private List<CartItem> applyCartBatchInDatabase(Long customerId, List<CartBatchOperation> operations) {
+        Cart cart = cartRepository.findByCustomerId(customerId).orElseGet(() -> {
+            Customer customer = customerRepository.findById(customerId)
+                    .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + customerId));
+            return getOrCreateCart(customer);
+        });
+
+        // One read of the cart; every operation works on these managed entities
+        List<CartItem> items = new ArrayList<>(cartItemRepository.findByCartId(cart.getId()));
+        List<CartItem> added = new ArrayList<>();
+        List<CartItem> removed = new ArrayList<>();
+        for (CartBatchOperation operation : operations) {
+            if ("add".equals(operation.getOp())) {
+                CartItem existing = items.stream()
+                        .filter(item -> item.getProduct().getId().equals(operation.getProductId())
+                                && Objects.equals(item.getSize(), operation.getSize()))
+                        .findFirst()
+                        .orElse(null);
+                if (existing != null) {
+                    existing.setQuantity(existing.getQuantity() + operation.getQuantity());
+                } else {
+                    Product product = productService.findById(operation.getProductId())
+                            .orElseThrow(() -> new IllegalArgumentException("Product not found with ID: " + operation.getProductId()));
+                    CartItem newItem = new CartItem();
+                    newItem.setCart(cart);
+                    newItem.setProduct(product);
+                    newItem.setQuantity(operation.getQuantity());
+                    newItem.setSize(operation.getSize());
+                    items.add(newItem);
+                    added.add(newItem);
+                }
+            } else {
+                CartItem item = items.stream()
+                        .filter(candidate -> operation.getCartItemId().equals(candidate.getId()))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Cart item " + operation.getCartItemId() + " is not in this cart"));
+                if ("update".equals(operation.getOp()) && operation.getQuantity() > 0) {
+                    item.setQuantity(operation.getQuantity());
+                } else {
+                    items.remove(item);
+                    removed.add(item);
+                }
+            }
+        }
+
+        // Quantity changes on loaded items are flushed by dirty checking at commit
+        cartItemRepository.saveAll(added);
+        if (!removed.isEmpty()) {
+            cartItemRepository.deleteAllInBatch(removed);
+        }
+        return items;
+    }
+
+    private static void validateOperation(CartBatchOperation operation) {
+        if (operation == null || operation.getOp() == null) {
+            throw new IllegalArgumentException("Every cart operation needs an op (add, update or remove)");
+        }
+        operation.setOp(operation.getOp().toLowerCase());
+        switch (operation.getOp()) {
+            case "add" -> {
+                if (operation.getProductId() == null) {
+                    throw new IllegalArgumentException("add needs a productId");
+                }
+                if (operation.getQuantity() == null) {
+                    operation.setQuantity(1);
+                }
+                if (operation.getQuantity() <= 0) {
+                    throw new IllegalArgumentException("add needs a positive quantity");
+                }
+            }
+            case "update" -> {
+                if (operation.getCartItemId() == null || operation.getQuantity() == null) {
+                    throw new IllegalArgumentException("update needs a cartItemId and a quantity");
+                }
+            }
+            case "remove" -> {
+                if (operation.getCartItemId() == null) {
+                    throw new IllegalArgumentException("remove needs a cartItemId");
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown cart operation: " + operation.getOp());
+        }
+    }
+
     /**
      * Clear all items from a customer's cart
      */
-    @Transactional
     public void clearCart(Long customerId) {
-        Optional<Cart> optionalCart = cartRepository.findByCustomerId(customerId);
-        if (optionalCart.isPresent()) {
-            cartItemRepository.deleteByCartId(optionalCart.get().getId());
-        }
+        customerLocks.runLocked(customerId, () -> transactionTemplate.executeWithoutResult(status -> {
+            cartStore.evict(customerId);
+            Optional<Cart> optionalCart = cartRepository.findByCustomerId(customerId);
+            if (optionalCart.isPresent()) {
+                cartItemRepository.deleteByCartId(optionalCart.get().getId());
+            }
+        }));
+        eventPublisher.publishEvent(CartChangedEvent.forCustomer(customerId));
     }
 }
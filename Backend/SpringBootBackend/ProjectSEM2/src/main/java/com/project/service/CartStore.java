@@ -0,0 +1,593 @@
+package com.project.service;
+
+import com.project.model.Cart;
+import com.project.model.CartItem;
+import com.project.model.Product;
+import com.project.repository.CartItemRepository;
+import com.project.repository.CartRepository;
+import com.project.repository.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Optional write-behind store for shopping carts ({@code cart.store.write-behind.enabled}).
+ * Active carts live in memory, keyed by customer, and cart clicks only touch that copy.
+ * Dirty carts are written to {@code cart} / {@code cart_item} in the background, several
+ * carts per transaction, so repeated clicks on the same item collapse into one write.
+ *
+ * Items added since the last flush carry a temporary negative id; once written they take
+ * their database id, and the temporary one keeps resolving to the same item.
+ * Checkout must call {@link #flush(Long)} before reading the cart from the database and
+ * {@link #evict(Long)} when it deletes the cart, so nothing is lost or resurrected at
+ * that boundary. Changes not yet flushed are lost if the process dies.
+ */
+@Component
+public class CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartStore.class);
+
+    // A cart that fails this many flushes in a row is dropped rather than retried forever
+    private static final int MAX_FLUSH_FAILURES = 3;
+    private static final String UPDATE_QUANTITY_SQL =
+            "UPDATE cart_item SET quantity = ?, updated_at = ? WHERE cart_item_id = ?";
+
+    private final boolean enabled;
+    private final int flushBatchSize;
+    private final long idleNanos;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final CustomerRepository customerRepository;
+    private final ProductService productService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<Long, CachedCart> carts = new ConcurrentHashMap<>();
+    // Item id (database or temporary) to customer id, to find the cart behind item-level calls
+    private final Map<Long, Long> itemOwners = new ConcurrentHashMap<>();
+    private final AtomicLong temporaryIds = new AtomicLong();
+
+    @Autowired
+    public CartStore(@Value("${cart.store.write-behind.enabled:false}") boolean enabled,
+                     @Value("${cart.store.flush-batch-size:100}") int flushBatchSize,
+                     @Value("${cart.store.idle-minutes:30}") long idleMinutes,
+                     CartRepository cartRepository,
+                     CartItemRepository cartItemRepository,
+                     CustomerRepository customerRepository,
+                     ProductService productService,
+                     JdbcTemplate jdbcTemplate,
+                     PlatformTransactionManager transactionManager) {
+        if (flushBatchSize < 1) {
+            throw new IllegalArgumentException("cart.store.flush-batch-size must be at least 1");
+        }
+        this.enabled = enabled;
+        this.flushBatchSize = flushBatchSize;
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.customerRepository = customerRepository;
+        this.productService = productService;
+        this.jdbcTemplate = jdbcTemplate;
+        // Flushes commit on their own, even when called from inside a checkout transaction,
+        // so an item is only marked written once its row is really committed
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Items of the customer's cart, or an empty list when the customer does not exist.
+     */
+    public List<CartItem> getItems(Long customerId) {
+        while (true) {
+            CachedCart cart = cartOf(customerId);
+            if (cart == null) {
+                return Collections.emptyList();
+            }
+            synchronized (cart) {
+                if (!cart.evicted) {
+                    cart.touch();
+                    return cart.items.stream().map(this::toCartItem).collect(Collectors.toList());
+                }
+            }
+        }
+    }
+
+    public CartItem addItem(Long customerId, Product product, int quantity, String size) {
+        while (true) {
+            CachedCart cart = cartOf(customerId);
+            if (cart == null) {
+                throw new RuntimeException("Customer not found with ID: " + customerId);
+            }
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue;
+                }
+                cart.touch();
+                for (CachedItem item : cart.items) {
+                    if (item.productId.equals(product.getId()) && Objects.equals(item.size, size)) {
+                        item.setQuantity(item.quantity + quantity);
+                        return toCartItem(item);
+                    }
+                }
+                CachedItem item = new CachedItem(-temporaryIds.incrementAndGet(), product.getId(), size, quantity);
+                cart.items.add(item);
+                itemOwners.put(item.id, customerId);
+                return toCartItem(item);
+            }
+        }
+    }
+
+    /**
+     * Sets the quantity of an item, removing it when the quantity is not positive.
+     *
+     * @return the updated item, or null when it was removed
+     */
+    public CartItem updateQuantity(Long cartItemId, int quantity) {
+        if (quantity <= 0) {
+            removeItem(cartItemId);
+            return null;
+        }
+        while (true) {
+            CachedCart cart = cartOfItem(cartItemId);
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue;
+                }
+                cart.touch();
+                CachedItem item = cart.find(cartItemId);
+                if (item == null) {
+                    throw new RuntimeException("Cart item not found with ID: " + cartItemId);
+                }
+                item.setQuantity(quantity);
+                return toCartItem(item);
+            }
+        }
+    }
+
+    public void removeItem(Long cartItemId) {
+        while (true) {
+            CachedCart cart = cartOfItem(cartItemId);
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue;
+                }
+                cart.touch();
+                CachedItem item = cart.find(cartItemId);
+                if (item == null) {
+                    throw new RuntimeException("Cart item not found with ID: " + cartItemId);
+                }
+                cart.items.remove(item);
+                item.removed = true;
+                if (item.id > 0) {
+                    cart.removedIds.add(item.id);
+                }
+                forgetItem(item);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Current id of an item in the customer's cart, resolving the temporary id of an item
+     * that has since been written the same way item updates do, or null when the cart
+     * does not hold the item.
+     */
+    public Long resolveItemId(Long customerId, Long cartItemId) {
+        while (true) {
+            CachedCart cart = cartOf(customerId);
+            if (cart == null) {
+                return null;
+            }
+            synchronized (cart) {
+                if (!cart.evicted) {
+                    CachedItem item = cart.find(cartItemId);
+                    return item == null ? null : item.id;
+                }
+            }
+        }
+    }
+
+    /**
+     * Customer whose cached cart holds the item, or null when it is not in memory.
+     */
+    public Long ownerOf(Long cartItemId) {
+        return itemOwners.get(cartItemId);
+    }
+
+    /**
+     * Whether the customer's cart is currently held in memory, i.e. recently used.
+     */
+    public boolean holds(Long customerId) {
+        return enabled && carts.containsKey(customerId);
+    }
+
+    /**
+     * Writes the customer's pending changes now, on the calling thread.
+     */
+    public void flush(Long customerId) {
+        CachedCart cart = carts.get(customerId);
+        if (cart == null) {
+            return;
+        }
+        cart.flushLock.lock();
+        try {
+            write(Collections.singletonList(cart));
+        } finally {
+            cart.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the customer's cart from memory, discarding unflushed changes. Waits for a
+     * flush of that cart in progress, so once this returns nothing more is written for it.
+     */
+    public void evict(Long customerId) {
+        CachedCart cart = carts.get(customerId);
+        if (cart == null) {
+            return;
+        }
+        cart.flushLock.lock();
+        try {
+            synchronized (cart) {
+                cart.evicted = true;
+                carts.remove(customerId, cart);
+                cart.items.forEach(this::forgetItem);
+            }
+        } finally {
+            cart.flushLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:1000}")
+    public void flushDirtyCarts() {
+        if (!enabled || carts.isEmpty()) {
+            return;
+        }
+        List<CachedCart> batch = new ArrayList<>(flushBatchSize);
+        for (CachedCart cart : carts.values()) {
+            // A cart whose lock is taken is being flushed or evicted by a request right now
+            if (cart.isDirty() && cart.flushLock.tryLock()) {
+                batch.add(cart);
+                if (batch.size() == flushBatchSize) {
+                    flushBatch(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+        evictIdleCarts();
+    }
+
+    // Callers hold the flush lock of every cart in the batch; it is released here
+    private void flushBatch(List<CachedCart> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException batchFailure) {
+            // Retry one by one so a single bad cart does not hold back the others
+            for (CachedCart cart : batch) {
+                try {
+                    write(Collections.singletonList(cart));
+                } catch (RuntimeException e) {
+                    cart.failures++;
+                    if (cart.failures >= MAX_FLUSH_FAILURES) {
+                        logger.error("Dropping unflushed cart of customer {} after {} failed flushes",
+                                cart.customerId, cart.failures, e);
+                        synchronized (cart) {
+                            cart.evicted = true;
+                            carts.remove(cart.customerId, cart);
+                            cart.items.forEach(this::forgetItem);
+                        }
+                    } else {
+                        logger.warn("Flushing cart of customer {} failed, will retry", cart.customerId, e);
+                    }
+                }
+            }
+        } finally {
+            for (CachedCart cart : batch) {
+                cart.flushLock.unlock();
+            }
+        }
+    }
+
+    private void evictIdleCarts() {
+        long now = System.nanoTime();
+        for (CachedCart cart : carts.values()) {
+            if (now - cart.lastAccess > idleNanos && !cart.isDirty() && cart.flushLock.tryLock()) {
+                try {
+                    synchronized (cart) {
+                        if (!cart.isDirty()) {
+                            cart.evicted = true;
+                            carts.remove(cart.customerId, cart);
+                            cart.items.forEach(this::forgetItem);
+                        }
+                    }
+                } finally {
+                    cart.flushLock.unlock();
+                }
+            }
+        }
+    }
+
+    // Snapshots the carts, writes the snapshots in one transaction and marks them clean after commit
+    private void write(List<CachedCart> batch) {
+        List<CartSnapshot> snapshots = new ArrayList<>(batch.size());
+        for (CachedCart cart : batch) {
+            synchronized (cart) {
+                if (!cart.evicted && cart.isDirty()) {
+                    snapshots.add(new CartSnapshot(cart));
+                }
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> quantityUpdates = new ArrayList<>();
+            for (CartSnapshot snapshot : snapshots) {
+                writeSnapshot(snapshot, quantityUpdates, now);
+            }
+            if (!quantityUpdates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_QUANTITY_SQL, quantityUpdates);
+            }
+        });
+        for (CartSnapshot snapshot : snapshots) {
+            synchronized (snapshot.cart) {
+                snapshot.applyTo(snapshot.cart);
+            }
+        }
+    }
+
+    // Runs inside the flush transaction; new rows are inserted right away, quantity updates are collected
+    private void writeSnapshot(CartSnapshot snapshot, List<Object[]> quantityUpdates, Timestamp now) {
+        if (snapshot.cartId == null) {
+            Cart cart = cartRepository.findByCustomerId(snapshot.customerId).orElseGet(() -> {
+                Cart created = new Cart();
+                created.setCustomer(customerRepository.getReferenceById(snapshot.customerId));
+                created.setCreatedAt(LocalDateTime.now());
+                return cartRepository.save(created);
+            });
+            snapshot.cartId = cart.getId();
+        }
+        if (!snapshot.removedIds.isEmpty()) {
+            cartItemRepository.deleteAllByIdInBatch(snapshot.removedIds);
+        }
+        for (ItemSnapshot item : snapshot.items) {
+            if (item.id < 0) {
+                CartItem entity = new CartItem();
+                entity.setCart(entityManager.getReference(Cart.class, snapshot.cartId));
+                entity.setProduct(entityManager.getReference(Product.class, item.item.productId));
+                entity.setQuantity(item.quantity);
+                entity.setSize(item.item.size);
+                item.assignedId = cartItemRepository.save(entity).getId();
+            } else {
+                quantityUpdates.add(new Object[]{item.quantity, now, item.id});
+            }
+        }
+    }
+
+    // Cached cart of the customer, loaded from the database on a miss; null when the customer does not exist
+    private CachedCart cartOf(Long customerId) {
+        CachedCart cart = carts.get(customerId);
+        if (cart != null) {
+            return cart;
+        }
+        CachedCart loaded = transactionTemplate.execute(status -> load(customerId));
+        if (loaded == null) {
+            return null;
+        }
+        CachedCart existing = carts.putIfAbsent(customerId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        for (CachedItem item : loaded.items) {
+            itemOwners.put(item.id, customerId);
+        }
+        return loaded;
+    }
+
+    private CachedCart load(Long customerId) {
+        Optional<Cart> cart = cartRepository.findByCustomerId(customerId);
+        if (cart.isEmpty()) {
+            return customerRepository.existsById(customerId) ? new CachedCart(customerId, null) : null;
+        }
+        CachedCart cached = new CachedCart(customerId, cart.get().getId());
+        for (CartItem item : cartItemRepository.findByCartId(cart.get().getId())) {
+            CachedItem loaded = new CachedItem(item.getId(), item.getProduct().getId(), item.getSize(), item.getQuantity());
+            loaded.flushedVersion = loaded.version;
+            cached.items.add(loaded);
+        }
+        return cached;
+    }
+
+    private CachedCart cartOfItem(Long cartItemId) {
+        Long customerId = itemOwners.get(cartItemId);
+        if (customerId == null && cartItemId > 0) {
+            customerId = cartItemRepository.findCustomerIdByCartItemId(cartItemId).orElse(null);
+        }
+        CachedCart cart = customerId == null ? null : cartOf(customerId);
+        if (cart == null) {
+            throw new RuntimeException("Cart item not found with ID: " + cartItemId);
+        }
+        return cart;
+    }
+
+    private void forgetItem(CachedItem item) {
+        itemOwners.remove(item.id);
+        if (item.temporaryId != 0) {
+            itemOwners.remove(item.temporaryId);
+        }
+    }
+
+    private CartItem toCartItem(CachedItem item) {
+        CartItem cartItem = new CartItem();
+        cartItem.setId(item.id);
+        // Resolved on every read through the product cache, so prices are never stale
+        cartItem.setProduct(productService.findById(item.productId).orElse(null));
+        cartItem.setQuantity(item.quantity);
+        cartItem.setSize(item.size);
+        return cartItem;
+    }
+
+    private static class CachedCart {
+        private final Long customerId;
+        private final List<CachedItem> items = new ArrayList<>();
+        // Database ids of removed items still to be deleted
+        private final List<Long> removedIds = new ArrayList<>();
+        // Held while the cart is written or evicted; cart clicks never wait for it
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private Long cartId;
+        private volatile long lastAccess = System.nanoTime();
+        private boolean evicted;
+        private int failures;
+
+        private CachedCart(Long customerId, Long cartId) {
+            this.customerId = customerId;
+            this.cartId = cartId;
+        }
+
+        private void touch() {
+            lastAccess = System.nanoTime();
+        }
+
+        private synchronized boolean isDirty() {
+            if (!removedIds.isEmpty()) {
+                return true;
+            }
+            for (CachedItem item : items) {
+                if (item.isDirty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private CachedItem find(Long id) {
+            for (CachedItem item : items) {
+                if (item.id == id || item.temporaryId == id) {
+                    return item;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class CachedItem {
+        private final Long productId;
+        private final String size;
+        private long id;
+        // Negative id the item was created with, kept after it has been written; 0 if loaded
+        private long temporaryId;
+        private int quantity;
+        private long version;
+        private long flushedVersion = -1;
+        private boolean removed;
+
+        private CachedItem(long id, Long productId, String size, int quantity) {
+            this.id = id;
+            this.productId = productId;
+            this.size = size;
+            this.quantity = quantity;
+        }
+
+        private void setQuantity(int quantity) {
+            this.quantity = quantity;
+            version++;
+        }
+
+        private boolean isDirty() {
+            return id < 0 || version != flushedVersion;
+        }
+    }
+
+    /**
+     * Pending changes of one cart, copied under the cart's monitor so the write runs
+     * without blocking cart clicks.
+     */
+    private class CartSnapshot {
+        private final CachedCart cart;
+        private final Long customerId;
+        private final List<Long> removedIds;
+        private final List<ItemSnapshot> items = new ArrayList<>();
+        private Long cartId;
+
+        private CartSnapshot(CachedCart cart) {
+            this.cart = cart;
+            this.customerId = cart.customerId;
+            this.cartId = cart.cartId;
+            this.removedIds = new ArrayList<>(cart.removedIds);
+            for (CachedItem item : cart.items) {
+                if (item.isDirty()) {
+                    items.add(new ItemSnapshot(item));
+                }
+            }
+        }
+
+        private void applyTo(CachedCart target) {
+            target.cartId = cartId;
+            target.removedIds.removeAll(removedIds);
+            target.failures = 0;
+            for (ItemSnapshot written : items) {
+                CachedItem item = written.item;
+                if (written.assignedId != null) {
+                    item.temporaryId = item.id;
+                    item.id = written.assignedId;
+                    if (item.removed) {
+                        // Removed while its insert was in flight: delete the row next time
+                        target.removedIds.add(item.id);
+                    } else if (!target.evicted) {
+                        itemOwners.put(item.id, customerId);
+                    }
+                }
+                item.flushedVersion = written.version;
+            }
+        }
+    }
+
+    private static class ItemSnapshot {
+        private final CachedItem item;
+        private final long id;
+        private final int quantity;
+        private final long version;
+        private Long assignedId;
+
+        private ItemSnapshot(CachedItem item) {
+            this.item = item;
+            this.id = item.id;
+            this.quantity = item.quantity;
+            this.version = item.version;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.project.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes carts nobody has touched for {@code cart.sweeper.ttl-days}. A cart is idle when
+ * it was created before the cutoff and none of its items was added or changed since then.
+ *
+ * The sweep walks the cart table in primary key order, a chunk at a time. Each chunk is
+ * deleted in its own short transaction that first locks the chunk's carts and re-checks
+ * that they are still idle, so a customer adding an item while the sweep runs keeps the
+ * cart and no lock is held for longer than one chunk. The chunk's customers are also locked
+ * in {@link CartService} for that time, which keeps the write-behind store out of the way.
+ */
+@Service
+public class CartSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartSweeper.class);
+
+    private static final String IDLE_CONDITION =
+            "(c.created_at IS NULL OR c.created_at < ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM cart_item ci WHERE ci.cart_id = c.cart_id AND ci.updated_at >= ?)";
+
+    private static final String FIND_IDLE_CARTS_SQL =
+            "SELECT c.cart_id, c.customer_id FROM cart c WHERE c.cart_id > ? AND " + IDLE_CONDITION +
+            " ORDER BY c.cart_id LIMIT ?";
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int chunkSize;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CartStore cartStore;
+    private final CartService cartService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Collections.emptyMap();
+    private long runs = 0;
+    private long totalCartsDeleted = 0;
+    private long totalItemsDeleted = 0;
+
+    @Autowired
+    public CartSweeper(@Value("${cart.sweeper.enabled:true}") boolean enabled,
+                       @Value("${cart.sweeper.ttl-days:30}") long ttlDays,
+                       @Value("${cart.sweeper.chunk-size:500}") int chunkSize,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       CartStore cartStore,
+                       CartService cartService,
+                       ApplicationEventPublisher eventPublisher) {
+        if (ttlDays < 1) {
+            throw new IllegalArgumentException("cart.sweeper.ttl-days must be at least 1");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("cart.sweeper.chunk-size must be at least 1");
+        }
+        this.enabled = enabled;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.chunkSize = chunkSize;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cartStore = cartStore;
+        this.cartService = cartService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(cron = "${cart.sweeper.cron:0 30 3 * * *}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    /**
+     * Runs one sweep now and returns its metrics. Returns {@code null} if a sweep is
+     * already in progress.
+     */
+    public Map<String, Object> sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return runSweep();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("ttlDays", ttl.toDays());
+        stats.put("chunkSize", chunkSize);
+        stats.put("running", running.get());
+        stats.put("runs", runs);
+        stats.put("totalCartsDeleted", totalCartsDeleted);
+        stats.put("totalItemsDeleted", totalItemsDeleted);
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    private Map<String, Object> runSweep() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        Timestamp cutoff = Timestamp.valueOf(startedAt.minus(ttl));
+        long cartsDeleted = 0;
+        long itemsDeleted = 0;
+        int chunks = 0;
+        String error = null;
+        long lastId = 0;
+        try {
+            while (true) {
+                List<long[]> candidates = jdbcTemplate.query(FIND_IDLE_CARTS_SQL,
+                        (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                        lastId, cutoff, cutoff, chunkSize);
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                lastId = candidates.get(candidates.size() - 1)[0];
+                ChunkResult result = sweepChunk(candidates, cutoff);
+                if (result.attempted) {
+                    cartsDeleted += result.customerIds.size();
+                    itemsDeleted += result.itemsDeleted;
+                    chunks++;
+                    for (Long customerId : result.customerIds) {
+                        eventPublisher.publishEvent(CartChangedEvent.forCustomer(customerId));
+                    }
+                }
+                if (candidates.size() < chunkSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            logger.error("Cart sweep stopped after {} carts", cartsDeleted, e);
+        }
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("startedAt", startedAt);
+        run.put("durationMs", (System.nanoTime() - start) / 1_000_000);
+        run.put("cutoff", cutoff.toLocalDateTime());
+        run.put("chunks", chunks);
+        run.put("cartsDeleted", cartsDeleted);
+        run.put("itemsDeleted", itemsDeleted);
+        run.put("error", error);
+        synchronized (this) {
+            runs++;
+            totalCartsDeleted += cartsDeleted;
+            totalItemsDeleted += itemsDeleted;
+            lastRun = Collections.unmodifiableMap(run);
+        }
+        if (cartsDeleted > 0) {
+            logger.info("Cart sweep deleted {} carts and {} items older than {}", cartsDeleted, itemsDeleted, cutoff);
+        }
+        return lastRun;
+    }
+
+    /**
+     * Deletes the idle carts among the candidates while holding their customers' cart locks,
+     * so no cart change can start between deciding a cart is unused and deleting it. Carts
+     * held by the write-behind store are in use and may have unwritten changes, so they are
+     * skipped; the others are evicted from the store, still under the locks, because a read
+     * may have loaded them in the meantime.
+     */
+    private ChunkResult sweepChunk(List<long[]> candidates, Timestamp cutoff) {
+        List<Long> customerIds = candidates.stream()
+                .map(candidate -> candidate[1])
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        return cartService.withCustomerLocks(customerIds, () -> {
+            List<long[]> chunk = new ArrayList<>(candidates.size());
+            for (long[] candidate : candidates) {
+                if (!cartStore.holds(candidate[1])) {
+                    chunk.add(candidate);
+                }
+            }
+            if (chunk.isEmpty()) {
+                return new ChunkResult();
+            }
+            ChunkResult result = deleteChunk(chunk, cutoff);
+            result.customerIds.forEach(cartStore::evict);
+            return result;
+        });
+    }
+
+    private ChunkResult deleteChunk(List<long[]> chunk, Timestamp cutoff) {
+        return transactionTemplate.execute(status -> {
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            List<Object> lockArgs = new ArrayList<>(chunk.size() + 2);
+            for (long[] candidate : chunk) {
+                lockArgs.add(candidate[0]);
+            }
+            lockArgs.add(cutoff);
+            lockArgs.add(cutoff);
+            // Locking the cart rows blocks concurrent inserts into these carts until we commit;
+            // anything written before the lock shows up in the re-check
+            List<long[]> idle = jdbcTemplate.query(
+                    "SELECT c.cart_id, c.customer_id FROM cart c WHERE c.cart_id IN (" + placeholders + ") AND " +
+                            IDLE_CONDITION + " FOR UPDATE",
+                    (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                    lockArgs.toArray());
+            ChunkResult result = new ChunkResult();
+            result.attempted = true;
+            if (idle.isEmpty()) {
+                return result;
+            }
+            Object[] cartIds = new Object[idle.size()];
+            for (int i = 0; i < idle.size(); i++) {
+                cartIds[i] = idle.get(i)[0];
+                result.customerIds.add(idle.get(i)[1]);
+            }
+            String idList = String.join(",", Collections.nCopies(idle.size(), "?"));
+            result.itemsDeleted = jdbcTemplate.update("DELETE FROM cart_item WHERE cart_id IN (" + idList + ")", cartIds);
+            jdbcTemplate.update("DELETE FROM cart WHERE cart_id IN (" + idList + ")", cartIds);
+            return result;
+        });
+    }
+
+    private static class ChunkResult {
+        // False when every candidate was skipped and no delete transaction ran
+        private boolean attempted;
+        private final List<Long> customerIds = new ArrayList<>();
+        private int itemsDeleted;
+    }
+}
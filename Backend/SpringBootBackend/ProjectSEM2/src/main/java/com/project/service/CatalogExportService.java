@@ -0,0 +1,160 @@
+package com.project.service;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Exports the active catalog with stock levels as CSV or XLSX. Rows come from a
+ * forward-only, streaming JDBC cursor and go straight to the output (XLSX through POI's
+ * SXSSF writer, which keeps only a small window of rows in memory), so heap use does not
+ * depend on the size of the catalog.
+ */
+@Service
+public class CatalogExportService {
+
+    private static final String EXPORT_SQL = "SELECT p.product_id, p.name, c.name AS category_name, p.price, " +
+            "s.s_quantity, s.m_quantity, s.l_quantity, s.xl_quantity, s.xxl_quantity, p.image_url, p.description " +
+            "FROM product p " +
+            "LEFT JOIN category c ON c.id = p.category_id " +
+            "LEFT JOIN stock_quantity s ON s.stock_quantity_id = p.stock_quantity_id " +
+            "WHERE p.deleted = 0 ORDER BY p.product_id";
+    private static final String[] HEADERS = {"product_id", "name", "category", "price",
+            "s_quantity", "m_quantity", "l_quantity", "xl_quantity", "xxl_quantity", "image_url", "description"};
+    // Result set columns holding numbers: product_id, price and the five stock quantities
+    private static final boolean[] NUMERIC = {true, false, false, true, true, true, true, true, true, false, false};
+
+    // Rows SXSSF keeps in memory before flushing older ones to its temp file
+    private static final int XLSX_ROW_WINDOW = 100;
+    // Excel's row limit; longer exports continue on another sheet
+    private static final int XLSX_MAX_ROWS = 1_048_576;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public CatalogExportService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // Byte order mark, so Excel opens the UTF-8 names correctly
+        writer.write('\uFEFF');
+        writeCsvLine(writer, HEADERS);
+        String[] values = new String[HEADERS.length];
+        try {
+            streamRows(rs -> {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getString(i + 1);
+                }
+                try {
+                    writeCsvLine(writer, values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    public void writeXlsx(OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet[] sheet = {newSheet(workbook)};
+            int[] rowIndex = {1};
+            streamRows(rs -> {
+                if (rowIndex[0] == XLSX_MAX_ROWS) {
+                    sheet[0] = newSheet(workbook);
+                    rowIndex[0] = 1;
+                }
+                Row row = sheet[0].createRow(rowIndex[0]++);
+                for (int i = 0; i < HEADERS.length; i++) {
+                    setCell(row.createCell(i), rs, i + 1);
+                }
+            });
+            workbook.write(out);
+        } finally {
+            // Removes the temp files backing the flushed rows
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void streamRows(RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Tells MySQL Connector/J to stream rows one by one instead of buffering the result
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, handler);
+    }
+
+    private static Sheet newSheet(SXSSFWorkbook workbook) {
+        int number = workbook.getNumberOfSheets() + 1;
+        Sheet sheet = workbook.createSheet(number == 1 ? "Products" : "Products " + number);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            header.createCell(i).setCellValue(HEADERS[i]);
+        }
+        return sheet;
+    }
+
+    private static void setCell(Cell cell, ResultSet rs, int column) throws SQLException {
+        if (NUMERIC[column - 1]) {
+            BigDecimal value = rs.getBigDecimal(column);
+            if (value != null) {
+                cell.setCellValue(value.doubleValue());
+            }
+        } else {
+            String value = rs.getString(column);
+            if (value != null) {
+                cell.setCellValue(value);
+            }
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote values containing separators, quotes or line breaks, doubling inner quotes
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,25 @@
+package com.project.service;
+
+/**
+ * Published after a bulk import has written products or categories directly with SQL,
+ * bypassing the per-entity change events. In-memory views of the catalog rebuild
+ * themselves from the database when they receive it.
+ */
+public class CatalogImportedEvent {
+
+    private final int categoriesWritten;
+    private final int productsWritten;
+
+    public CatalogImportedEvent(int categoriesWritten, int productsWritten) {
+        this.categoriesWritten = categoriesWritten;
+        this.productsWritten = productsWritten;
+    }
+
+    public int getCategoriesWritten() {
+        return categoriesWritten;
+    }
+
+    public int getProductsWritten() {
+        return productsWritten;
+    }
+}
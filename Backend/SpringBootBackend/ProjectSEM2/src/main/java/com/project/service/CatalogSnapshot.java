@@ -0,0 +1,125 @@
+package com.project.service;
+
+import com.project.model.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of every active product, grouped by category and sorted by id.
+ * A new snapshot is built for every catalog write and swapped in whole, so readers
+ * never see a partially applied change and never need a lock.
+ *
+ * Each product also has an ordinal (its position in id order) so that candidate sets
+ * can be represented as bitsets, with one precomputed bitset per category.
+ */
+public class CatalogSnapshot {
+
+    private static final Product[] EMPTY = new Product[0];
+
+    private final Map<Long, Product> byId;
+    private final Product[] all;
+    private final Map<Long, Product[]> byCategory;
+    private final Map<Long, Integer> ordinals;
+    private final Map<Long, BitSet> categoryBits;
+
+    private CatalogSnapshot(Map<Long, Product> byId) {
+        this.byId = Collections.unmodifiableMap(byId);
+        this.all = byId.values().toArray(new Product[0]);
+        Arrays.sort(this.all, Comparator.comparing(Product::getId));
+
+        Map<Long, List<Product>> grouped = new HashMap<>();
+        Map<Long, Integer> positions = new HashMap<>();
+        Map<Long, BitSet> bits = new HashMap<>();
+        for (int ordinal = 0; ordinal < all.length; ordinal++) {
+            Product product = all[ordinal];
+            positions.put(product.getId(), ordinal);
+            if (product.getCategoryId() != null) {
+                grouped.computeIfAbsent(product.getCategoryId(), id -> new ArrayList<>()).add(product);
+                bits.computeIfAbsent(product.getCategoryId(), id -> new BitSet(all.length)).set(ordinal);
+            }
+        }
+        this.ordinals = Collections.unmodifiableMap(positions);
+        this.categoryBits = Collections.unmodifiableMap(bits);
+
+        Map<Long, Product[]> categories = new HashMap<>();
+        for (Map.Entry<Long, List<Product>> entry : grouped.entrySet()) {
+            // Already in id order because "all" is sorted
+            categories.put(entry.getKey(), entry.getValue().toArray(new Product[0]));
+        }
+        this.byCategory = Collections.unmodifiableMap(categories);
+    }
+
+    public static CatalogSnapshot of(Collection<Product> products) {
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : products) {
+            byId.put(product.getId(), product);
+        }
+        return new CatalogSnapshot(byId);
+    }
+
+    /**
+     * Returns a new snapshot with the product added or replaced, or removed when it is soft-deleted.
+     */
+    public CatalogSnapshot withProduct(Product product) {
+        Map<Long, Product> copy = new HashMap<>(byId);
+        if (product.getDeleted() != null && product.getDeleted() != 0) {
+            copy.remove(product.getId());
+        } else {
+            copy.put(product.getId(), product);
+        }
+        return new CatalogSnapshot(copy);
+    }
+
+    public CatalogSnapshot withoutProduct(Long productId) {
+        if (!byId.containsKey(productId)) {
+            return this;
+        }
+        Map<Long, Product> copy = new HashMap<>(byId);
+        copy.remove(productId);
+        return new CatalogSnapshot(copy);
+    }
+
+    /**
+     * Active products of one category in id order, or all active products when categoryId is null.
+     * The returned list is read-only.
+     */
+    public List<Product> products(Long categoryId) {
+        Product[] products = categoryId == null ? all : byCategory.getOrDefault(categoryId, EMPTY);
+        return Collections.unmodifiableList(Arrays.asList(products));
+    }
+
+    public Product get(Long productId) {
+        return byId.get(productId);
+    }
+
+    public int size() {
+        return all.length;
+    }
+
+    /**
+     * Position of the product in id order, or -1 when it is not an active product.
+     */
+    public int ordinalOf(Long productId) {
+        Integer ordinal = ordinals.get(productId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public Product productAt(int ordinal) {
+        return all[ordinal];
+    }
+
+    /**
+     * Ordinals of every product in each category. Callers must not modify the bitsets.
+     */
+    public Map<Long, BitSet> categoryBits() {
+        return categoryBits;
+    }
+}
@@ -0,0 +1,105 @@
+package com.project.service;
+
+import com.project.model.Product;
+import com.project.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves category browsing from an in-memory {@link CatalogSnapshot}. Product writes go
+ * through ProductServiceImpl, which publishes change events.
+ * Each event builds a new snapshot, and a volatile write swaps it in.
+ * Readers only dereference the current snapshot. Category writes need no rebuild: the
+ * snapshot groups products by category id only, and category names are served by
+ * CategoryServiceImpl.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final ProductRepository productRepository;
+
+    private volatile CatalogSnapshot snapshot;
+
+    @Autowired
+    public CatalogSnapshotService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogImportedEvent.class})
+    @Order(CatalogVersion.SNAPSHOT_LISTENER_ORDER)
+    public synchronized void rebuild() {
+        snapshot = CatalogSnapshot.of(productRepository.findAllActive());
+        logger.info("Catalog snapshot built with {} active products", snapshot.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            snapshot = current.withoutProduct(event.getProductId());
+        } else {
+            snapshot = current.withProduct(event.getProduct());
+        }
+    }
+
+    /**
+     * The current snapshot, or null until the first build has finished.
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * The current snapshot, building it first if startup has not done so yet.
+     */
+    public CatalogSnapshot currentOrBuild() {
+        CatalogSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                rebuild();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Pages through active products of a category (or of the whole catalog) in id order.
+     * Empty when no snapshot is available yet or the request asks for a sort order the
+     * snapshot does not keep, in which case the caller should query the database.
+     */
+    public Optional<Page<Product>> browse(Long categoryId, Pageable pageable) {
+        CatalogSnapshot current = snapshot;
+        if (current == null || pageable.getSort().isSorted()) {
+            return Optional.empty();
+        }
+        List<Product> products = current.products(categoryId);
+        if (pageable.isUnpaged()) {
+            return Optional.of(new PageImpl<>(new ArrayList<>(products), pageable, products.size()));
+        }
+        int from = (int) Math.min(pageable.getOffset(), products.size());
+        int to = Math.min(from + pageable.getPageSize(), products.size());
+        return Optional.of(new PageImpl<>(new ArrayList<>(products.subList(from, to)), pageable, products.size()));
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide version counter, bumped after every committed product or category write.
+ * List endpoints derive their ETags from it, so a client holding the current tag can be
+ * answered with 304 Not Modified without touching the database.
+ *
+ * The counter lives in memory and restarts at zero, so tags also carry an id of this
+ * process to keep a tag from a previous run from matching by accident.
+ */
+@Component
+public class CatalogVersion {
+
+    /**
+     * Order for listeners that update in-memory views of the catalog. The version is bumped
+     * after them, so a tag is never paired with data older than the write it stands for.
+     */
+    public static final int VIEW_LISTENER_ORDER = 0;
+
+    /**
+     * Order of the catalog snapshot's rebuild, ahead of the other views, which build from
+     * the fresh snapshot instead of loading the catalog again.
+     */
+    public static final int SNAPSHOT_LISTENER_ORDER = VIEW_LISTENER_ORDER - 1;
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onProductChanged(ProductChangedEvent event) {
+        bump();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        bump();
+    }
+
+    @EventListener(CatalogImportedEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onCatalogImported() {
+        bump();
+    }
+
+    public long bump() {
+        return version.incrementAndGet();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Strong ETag for a list resource at the current catalog version.
+     *
+     * @param resource short name of the list, so different lists never share a tag
+     */
+    public String etag(String resource) {
+        return "\"" + resource + "-" + bootId + "-" + version.get() + "\"";
+    }
+}
@@ -0,0 +1,18 @@
+package com.project.service;
+
+/**
+ * Published by {@link CategoryServiceImpl} after a category is created, renamed or
+ * deleted. Listeners receive it after the surrounding transaction commits.
+ */
+public class CategoryChangedEvent {
+
+    private final Long categoryId;
+
+    public CategoryChangedEvent(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+}
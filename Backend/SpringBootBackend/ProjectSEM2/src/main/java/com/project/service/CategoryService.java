@@ -1,10 +1,14 @@
 package com.project.service;
 import com.project.model.Category;
 import java.util.List;
+import java.util.Map;
 public interface CategoryService {
     Category getCategoryById(Long id);
     Category createCategory(Category category);
     Category updateCategory(Long id, Category categoryDetails);
     void deleteCategory(Long id);
     List<Category> getAllCategories();
+    // Name lookups served from memory, for filling Product.categoryName without a query
+    String getCategoryName(Long id);
+    Map<Long, String> getCategoryNames();
 }
@@ -4,17 +4,35 @@ import com.project.model.Category;
 import com.project.repository.CategoryRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
 
+    public static final String CATEGORY_SEQUENCE = "category";
+
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IdBlockAllocator idBlockAllocator;
+
+    // id -> name, replaced wholesale on every write so readers never lock; null until first loaded
+    private volatile Map<Long, String> categoryNames;
+
     @Override
     public Category getCategoryById(Long id) {
         return categoryRepository.findById(id)
@@ -23,17 +41,13 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     public Category createCategory(Category category) {
-        // Find the maximum ID currently in use
-        Long maxId = categoryRepository.findAll().stream()
-                .map(Category::getId)
-                .filter(id -> id != null)
-                .max(Long::compareTo)
-                .orElse(0L);
+        // Category ids are assigned by hand; the allocator keeps them unique across concurrent creators
+        category.setId(idBlockAllocator.nextId(CATEGORY_SEQUENCE, this::highestCategoryId));
         
-        // Set the new ID to be one higher than the current maximum
-        category.setId(maxId + 1);
-        
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        putCategoryName(savedCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId()));
+        return savedCategory;
     }
 
     @Override
@@ -44,7 +58,10 @@ public class CategoryServiceImpl implements CategoryService {
             category.setName(categoryDetails.getName());
         }
         
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        putCategoryName(savedCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(savedCategory.getId()));
+        return savedCategory;
     }
 
     @Override
@@ -54,10 +71,55 @@ public class CategoryServiceImpl implements CategoryService {
             throw new EntityNotFoundException("Category not found with id: " + id);
         }
         categoryRepository.deleteById(id);
+        removeCategoryName(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
     }
 
     @Override
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
+
+    @Override
+    public String getCategoryName(Long id) {
+        return id == null ? null : getCategoryNames().get(id);
+    }
+
+    @Override
+    public Map<Long, String> getCategoryNames() {
+        Map<Long, String> names = categoryNames;
+        return names != null ? names : refreshCategoryNames();
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogImportedEvent.class})
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public void loadCategoryNames() {
+        refreshCategoryNames();
+    }
+
+    private synchronized Map<Long, String> refreshCategoryNames() {
+        Map<Long, String> names = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            names.put(category.getId(), category.getName());
+        }
+        categoryNames = Collections.unmodifiableMap(names);
+        return categoryNames;
+    }
+
+    private synchronized void putCategoryName(Category category) {
+        Map<Long, String> names = new HashMap<>(getCategoryNames());
+        names.put(category.getId(), category.getName());
+        categoryNames = Collections.unmodifiableMap(names);
+    }
+
+    private synchronized void removeCategoryName(Long id) {
+        Map<Long, String> names = new HashMap<>(getCategoryNames());
+        names.remove(id);
+        categoryNames = Collections.unmodifiableMap(names);
+    }
+
+    private long highestCategoryId() {
+        Long maxId = categoryRepository.findMaxId();
+        return maxId == null ? 0L : maxId;
+    }
 }
@@ -0,0 +1,133 @@
+package com.project.service;
+
+import com.project.model.Category;
+import com.project.model.Product;
+import com.project.model.dto.CategorySummaryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-category product counts and price ranges, kept in memory and adjusted on every
+ * product change event instead of being aggregated by a query. Each category keeps a
+ * sorted multiset of its prices, so the range stays exact when the cheapest or most
+ * expensive product leaves.
+ */
+@Service
+public class CategorySummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategorySummaryService.class);
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    // What each active product currently contributes, so an update can subtract its old values
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+    private final Map<Long, CategoryStats> stats = new HashMap<>();
+
+    @Autowired
+    public CategorySummaryService(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogImportedEvent.class})
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public void rebuild() {
+        List<Product> products = catalogSnapshotService.currentOrBuild().products(null);
+        synchronized (this) {
+            contributions.clear();
+            stats.clear();
+            for (Product product : products) {
+                add(product);
+            }
+        }
+        logger.info("Category summaries built from {} active products", products.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        remove(event.getProductId());
+        Product product = event.getProduct();
+        if (event.getType() == ProductChangedEvent.Type.SAVED
+                && (product.getDeleted() == null || product.getDeleted() == 0)) {
+            add(product);
+        }
+    }
+
+    /**
+     * Summaries for the given categories, in the same order. Categories without active
+     * products get a zero count.
+     */
+    public synchronized List<CategorySummaryDTO> summarize(List<Category> categories) {
+        List<CategorySummaryDTO> summaries = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            CategoryStats categoryStats = stats.get(category.getId());
+            if (categoryStats == null) {
+                summaries.add(new CategorySummaryDTO(category.getId(), category.getName(), 0, null, null));
+            } else {
+                BigDecimal min = categoryStats.prices.isEmpty() ? null : categoryStats.prices.firstKey();
+                BigDecimal max = categoryStats.prices.isEmpty() ? null : categoryStats.prices.lastKey();
+                summaries.add(new CategorySummaryDTO(category.getId(), category.getName(),
+                        categoryStats.productCount, min, max));
+            }
+        }
+        return summaries;
+    }
+
+    // Callers must hold the monitor
+    private void add(Product product) {
+        if (product.getCategoryId() == null) {
+            return;
+        }
+        contributions.put(product.getId(), new Contribution(product.getCategoryId(), product.getPrice()));
+        CategoryStats categoryStats = stats.computeIfAbsent(product.getCategoryId(), id -> new CategoryStats());
+        categoryStats.productCount++;
+        if (product.getPrice() != null) {
+            categoryStats.prices.merge(product.getPrice(), 1, Integer::sum);
+        }
+    }
+
+    // Callers must hold the monitor
+    private void remove(Long productId) {
+        Contribution previous = contributions.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        CategoryStats categoryStats = stats.get(previous.categoryId);
+        categoryStats.productCount--;
+        if (previous.price != null && categoryStats.prices.merge(previous.price, -1, Integer::sum) == 0) {
+            categoryStats.prices.remove(previous.price);
+        }
+        if (categoryStats.productCount == 0) {
+            stats.remove(previous.categoryId);
+        }
+    }
+
+    private static class Contribution {
+        private final Long categoryId;
+        private final BigDecimal price;
+
+        private Contribution(Long categoryId, BigDecimal price) {
+            this.categoryId = categoryId;
+            this.price = price;
+        }
+    }
+
+    private static class CategoryStats {
+        private int productCount;
+        // price -> number of products at that price; BigDecimal keys compare by value, so 10.0 and 10.00 share an entry
+        private final TreeMap<BigDecimal, Integer> prices = new TreeMap<>();
+    }
+}
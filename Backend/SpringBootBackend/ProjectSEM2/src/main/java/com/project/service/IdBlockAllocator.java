@@ -0,0 +1,153 @@
+package com.project.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out manually assigned primary keys (hi/lo style). Each named sequence has a row in
+ * {@code id_sequence}. Ranges of ids are reserved from that row one block at a time in a
+ * single UPDATE, then handed out from memory with an atomic counter, so most calls never
+ * touch the database and concurrent callers, in this or another instance, never get the
+ * same id. Ids left in a block when the application stops are skipped, not reused.
+ */
+@Service
+public class IdBlockAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdBlockAllocator.class);
+
+    // LAST_INSERT_ID(expr) makes MySQL report the new value as the statement's generated key,
+    // so the block is reserved and read back in one round trip
+    private static final String RESERVE_SQL =
+            "UPDATE id_sequence SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?";
+    private static final String SEED_SQL = "INSERT IGNORE INTO id_sequence (name, next_value) VALUES (?, ?)";
+    private static final String ADVANCE_SQL =
+            "UPDATE id_sequence SET next_value = GREATEST(next_value, ?) WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final int blockSize;
+    private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdBlockAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            @Value("${id.allocator.block-size:50}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("id.allocator.block-size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        // Reservations commit on their own, so a caller's rollback can never hand the same block out twice
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns the next id of the sequence.
+     *
+     * @param highestExisting highest id already used by the table the sequence feeds; only
+     *                        consulted once, when the sequence row does not exist yet
+     */
+    public long nextId(String sequence, LongSupplier highestExisting) {
+        while (true) {
+            Block block = blocks.get(sequence);
+            if (block != null) {
+                long id = block.next.getAndIncrement();
+                if (id < block.end) {
+                    return id;
+                }
+            }
+            synchronized (this) {
+                // Another thread may have refilled while we waited
+                if (blocks.get(sequence) == block) {
+                    blocks.put(sequence, reserve(sequence, highestExisting));
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes sure the sequence never returns {@code id} or anything below it. Callers that
+     * insert rows with explicit ids (imports) use this so allocated ids cannot collide.
+     */
+    public synchronized void advancePast(String sequence, long id) {
+        requiresNew.executeWithoutResult(status -> {
+            if (jdbcTemplate.update(ADVANCE_SQL, id + 1, sequence) == 0) {
+                jdbcTemplate.update(SEED_SQL, sequence, id + 1);
+            }
+        });
+        Block block = blocks.get(sequence);
+        if (block != null && block.next.get() <= id) {
+            // The rest of the block may overlap the explicit ids: exhaust it so callers still
+            // holding it move on to a fresh reservation
+            block.next.set(block.end);
+            blocks.remove(sequence);
+        }
+    }
+
+    // Callers hold the monitor, so each instance reserves at most one block per sequence at a time
+    private Block reserve(String sequence, LongSupplier highestExisting) {
+        Long end = requiresNew.execute(status -> {
+            Long reserved = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> reserveOn(connection, sequence));
+            if (reserved == null) {
+                jdbcTemplate.update(SEED_SQL, sequence, highestExisting.getAsLong() + 1);
+                reserved = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> reserveOn(connection, sequence));
+            }
+            return reserved;
+        });
+        if (end == null) {
+            throw new IllegalStateException("Could not reserve ids for sequence " + sequence);
+        }
+        logger.debug("Reserved ids [{}, {}) for sequence {}", end - blockSize, end, sequence);
+        return new Block(end - blockSize, end);
+    }
+
+    // Returns the new next_value (the exclusive end of the reserved block), or null when the row is missing
+    private Long reserveOn(Connection connection, String sequence) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(RESERVE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            statement.setInt(1, blockSize);
+            statement.setString(2, sequence);
+            if (statement.executeUpdate() == 0) {
+                return null;
+            }
+            try (ResultSet keys = statement.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getLong(1);
+                }
+            }
+        }
+        // Driver did not report the key; LAST_INSERT_ID() is per connection, so this is still our value
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT LAST_INSERT_ID()")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
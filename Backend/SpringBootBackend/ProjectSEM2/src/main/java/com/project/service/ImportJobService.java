@@ -0,0 +1,225 @@
+package com.project.service;
+
+import com.project.model.ImportJob;
+import com.project.model.dto.ImportResultDTO;
+import com.project.repository.ImportJobRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs catalog imports in the background. An upload is stored on disk and recorded as an
+ * {@link ImportJob}, then processed chunk by chunk by {@link BulkImportService} on a small
+ * worker pool. Each chunk commits together with the job's checkpoint, so a job that fails or
+ * is cut short by a restart resumes after the last committed chunk instead of starting over.
+ * Jobs left pending or running by a previous process are picked up again at startup.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ImportJobRepository importJobRepository;
+    private final BulkImportService bulkImportService;
+    private final Path storageDir;
+    private final ExecutorService workers;
+    // Jobs queued or running in this process, so one job is never processed twice at once
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public ImportJobService(ImportJobRepository importJobRepository,
+                            BulkImportService bulkImportService,
+                            @Value("${import.jobs.dir:${java.io.tmpdir}/catalog-imports}") String storageDir,
+                            @Value("${import.jobs.workers:1}") int workerCount) {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("import.jobs.workers must be at least 1");
+        }
+        this.importJobRepository = importJobRepository;
+        this.bulkImportService = bulkImportService;
+        this.storageDir = Paths.get(storageDir);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "catalog-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stores the upload and queues a job for it.
+     *
+     * @param format "json" (a DataImportDTO payload) or "xlsx" (a product sheet)
+     */
+    public ImportJob submit(InputStream content, String fileName, String format) throws IOException {
+        String normalizedFormat = normalizeFormat(format, fileName);
+        Files.createDirectories(storageDir);
+        Path target = storageDir.resolve(UUID.randomUUID() + "." + normalizedFormat);
+        Files.copy(content, target);
+
+        ImportJob job = new ImportJob();
+        job.setFileName(fileName);
+        job.setFormat(normalizedFormat);
+        job.setStoragePath(target.toAbsolutePath().toString());
+        job.setStatus(ImportJob.PENDING);
+        job = importJobRepository.save(job);
+        enqueue(job.getId());
+        return job;
+    }
+
+    public ImportJob getJob(Long jobId) {
+        return importJobRepository.findById(jobId)
+                .orElseThrow(() -> new EntityNotFoundException("Import job not found with id: " + jobId));
+    }
+
+    /**
+     * Queues a failed (or stalled) job again; it continues after its last checkpoint.
+     *
+     * @throws IllegalStateException when the job has completed or is already being processed
+     */
+    public ImportJob resume(Long jobId) {
+        ImportJob job = getJob(jobId);
+        if (ImportJob.COMPLETED.equals(job.getStatus())) {
+            throw new IllegalStateException("Import job " + jobId + " has already completed");
+        }
+        if (activeJobs.contains(jobId)) {
+            throw new IllegalStateException("Import job " + jobId + " is already queued or running");
+        }
+        job.setStatus(ImportJob.PENDING);
+        job.setErrorMessage(null);
+        job = importJobRepository.save(job);
+        enqueue(jobId);
+        return job;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        for (ImportJob job : importJobRepository.findByStatusInOrderByIdAsc(
+                Arrays.asList(ImportJob.PENDING, ImportJob.RUNNING))) {
+            logger.info("Resuming import job {} after record {}", job.getId(), job.getProcessedRecords());
+            enqueue(job.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // A job cut short here keeps its checkpoint: one still marked RUNNING resumes at the
+        // next start, one that got marked FAILED on the way out resumes through resume()
+        workers.shutdownNow();
+    }
+
+    private void enqueue(Long jobId) {
+        if (activeJobs.add(jobId)) {
+            workers.execute(() -> {
+                try {
+                    run(jobId);
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        }
+    }
+
+    private void run(Long jobId) {
+        ImportJob job = getJob(jobId);
+        try {
+            File file = new File(job.getStoragePath());
+            if (!file.isFile()) {
+                throw new IOException("Uploaded file is missing: " + job.getStoragePath());
+            }
+            job.setStatus(ImportJob.RUNNING);
+            if (job.getTotalRecords() == null) {
+                job.setTotalRecords(countRecords(job, file));
+            }
+            job = importJobRepository.save(job);
+
+            ImportResultDTO totals = totalsOf(job);
+            BulkImportService.ChunkListener checkpoint = (recordsDone, progress) ->
+                    importJobRepository.updateProgress(jobId, recordsDone,
+                            progress.getCategoriesInserted(), progress.getCategoriesUpdated(),
+                            progress.getProductsInserted(), progress.getProductsUpdated(),
+                            progress.getRejected(), LocalDateTime.now());
+            if ("xlsx".equals(job.getFormat())) {
+                bulkImportService.importXlsx(file, job.getProcessedRecords(), totals, checkpoint);
+            } else {
+                try (InputStream in = Files.newInputStream(file.toPath())) {
+                    bulkImportService.importJson(in, job.getProcessedRecords(), totals, checkpoint);
+                }
+            }
+
+            job = getJob(jobId);
+            job.setStatus(ImportJob.COMPLETED);
+            job.setProcessedRecords(job.getTotalRecords());
+            job.setStoragePath(null);
+            importJobRepository.save(job);
+            Files.deleteIfExists(file.toPath());
+            logger.info("Import job {} completed", jobId);
+        } catch (Exception e) {
+            logger.error("Import job {} failed", jobId, e);
+            // Reload so the checkpoint written by the chunks is kept
+            ImportJob failed = getJob(jobId);
+            failed.setStatus(ImportJob.FAILED);
+            failed.setErrorMessage(truncate(e.getMessage() != null ? e.getMessage() : e.toString()));
+            importJobRepository.save(failed);
+        }
+    }
+
+    private long countRecords(ImportJob job, File file) throws Exception {
+        if ("xlsx".equals(job.getFormat())) {
+            return bulkImportService.countXlsxRecords(file);
+        }
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return bulkImportService.countJsonRecords(in);
+        }
+    }
+
+    private static ImportResultDTO totalsOf(ImportJob job) {
+        ImportResultDTO totals = new ImportResultDTO();
+        totals.setCategoriesInserted(job.getCategoriesInserted());
+        totals.setCategoriesUpdated(job.getCategoriesUpdated());
+        totals.setProductsInserted(job.getProductsInserted());
+        totals.setProductsUpdated(job.getProductsUpdated());
+        totals.setRejected(job.getRejected());
+        return totals;
+    }
+
+    private static String normalizeFormat(String format, String fileName) {
+        String value = format;
+        if ((value == null || value.trim().isEmpty()) && fileName != null && fileName.contains(".")) {
+            value = fileName.substring(fileName.lastIndexOf('.') + 1);
+        }
+        if (value != null) {
+            value = value.trim().toLowerCase();
+            if ("json".equals(value) || "xlsx".equals(value)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown import format: " + value + " (expected json or xlsx)");
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
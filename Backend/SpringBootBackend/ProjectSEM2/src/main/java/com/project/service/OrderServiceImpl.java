@@ -4,7 +4,11 @@ import com.project.model.*;
 import com.project.model.dto.CartItemDTO;
 import com.project.model.dto.OrderRequest;
 import com.project.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,7 +26,7 @@ public class OrderServiceImpl implements OrderService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private ProductService productService;
 
     @Autowired
     private CustomerRepository customerRepository;
@@ -33,6 +37,15 @@ public class OrderServiceImpl implements OrderService {
     @Autowired
     private CartRepository cartRepository;
 
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Override
     @Transactional
     public Order createOrder(OrderRequest orderRequest) {
@@ -44,7 +57,7 @@ public class OrderServiceImpl implements OrderService {
 
         // 1. Validate stock for all items before making any changes
         for (CartItemDTO itemDTO : orderRequest.getCartItems()) {
-            Product product = productRepository.findById(itemDTO.getId())
+            Product product = productService.findById(itemDTO.getId())
                     .orElseThrow(() -> new RuntimeException("Product not found with id: " + itemDTO.getId()));
             
             int availableStock = getStockForSize(product, itemDTO.getSize());
@@ -63,7 +76,7 @@ public class OrderServiceImpl implements OrderService {
         BigDecimal totalAmount = BigDecimal.ZERO;
 
         for (CartItemDTO itemDTO : orderRequest.getCartItems()) {
-            Product product = productRepository.findById(itemDTO.getId()).get(); // Already checked, so .get() is safe
+            Product product = productService.findById(itemDTO.getId()).get(); // Already checked, so .get() is safe
             
             OrderItem orderItem = new OrderItem();
             orderItem.setProduct(product);
@@ -113,10 +126,12 @@ public class OrderServiceImpl implements OrderService {
 
         Order savedOrder = orderRepository.save(order);
 
-        // 4. Clear the customer's cart
+        // 4. Clear the customer's cart; the in-memory copy goes first so it is never flushed back
+        cartStore.evict(customer.getId());
         cartRepository.findByCustomerId(customer.getId()).ifPresent(cart -> {
             cartRepository.delete(cart);
         });
+        eventPublisher.publishEvent(CartChangedEvent.forCustomer(customer.getId()));
 
         return savedOrder;
     }
@@ -156,6 +171,10 @@ public class OrderServiceImpl implements OrderService {
                 }
 
                 updateStock(product, size, -quantity);
+                // Stock is a separate row, so bump the product version explicitly for ETags and the cache
+                entityManager.lock(product, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+                // Stock lives on the product, so cached copies must be refreshed after commit
+                eventPublisher.publishEvent(ProductChangedEvent.saved(product));
             }
         }
 
@@ -0,0 +1,176 @@
+package com.project.service;
+
+import com.project.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of products by id, used for product detail views and
+ * for the product lookups done while adding to the cart and building orders.
+ *
+ * Entries expire after a fixed time and the least recently used entry is evicted
+ * once the cache is full. Writes invalidate the entry and record the written
+ * {@code @Version}; an entry older than that version is never served, and a load
+ * that raced with a write is not cached.
+ */
+@Component
+public class ProductCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Long, CachedProduct> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Lowest version that may be served, recorded on writes until a fresh copy is cached.
+    // Insertion-ordered and capped at maxSize: a product written but never read again is
+    // dropped with the oldest writes, long after any stale load of it could still finish
+    private final LinkedHashMap<Long, Long> minimumVersions = new LinkedHashMap<>();
+    // Bumped on every invalidation; a load that spans a bump is not cached
+    private long generation = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long sizeEvictions = 0;
+    private long expirations = 0;
+    private long invalidations = 0;
+
+    public ProductCache(@Value("${product.cache.max-size:1000}") int maxSize,
+                        @Value("${product.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * Returns the cached product, or loads it with the given loader and caches the result.
+     */
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        long stamp;
+        synchronized (this) {
+            CachedProduct cached = entries.get(id);
+            if (cached != null) {
+                if (System.nanoTime() - cached.loadedAt > ttlNanos) {
+                    entries.remove(id);
+                    expirations++;
+                } else if (cached.version < minimumVersions.getOrDefault(id, Long.MIN_VALUE)) {
+                    entries.remove(id);
+                } else {
+                    hits++;
+                    return Optional.of(cached.product);
+                }
+            }
+            misses++;
+            stamp = generation;
+        }
+
+        Optional<Product> loaded = loader.apply(id);
+        loaded.ifPresent(product -> put(id, product, stamp));
+        return loaded;
+    }
+
+    /**
+     * Version of the cached copy of a product, without loading it. Empty when the product
+     * is not cached or its copy may be stale.
+     */
+    public synchronized Optional<Long> peekVersion(Long id) {
+        CachedProduct cached = entries.get(id);
+        if (cached == null
+                || System.nanoTime() - cached.loadedAt > ttlNanos
+                || cached.version < minimumVersions.getOrDefault(id, Long.MIN_VALUE)) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.version);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.getProduct();
+        invalidate(event.getProductId(), product == null ? null : product.getVersion());
+    }
+
+    /**
+     * Drops the cached copy of a product.
+     *
+     * @param writtenVersion version produced by the write, or null when unknown (soft delete)
+     */
+    public synchronized void invalidate(Long id, Long writtenVersion) {
+        generation++;
+        invalidations++;
+        entries.remove(id);
+        if (writtenVersion != null) {
+            Long recorded = minimumVersions.remove(id);
+            minimumVersions.put(id, recorded == null ? writtenVersion : Math.max(recorded, writtenVersion));
+            Iterator<Long> oldest = minimumVersions.keySet().iterator();
+            while (minimumVersions.size() > maxSize && oldest.hasNext()) {
+                oldest.next();
+                oldest.remove();
+            }
+        }
+    }
+
+    @EventListener(CatalogImportedEvent.class)
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public synchronized void clear() {
+        generation++;
+        invalidations += entries.size();
+        entries.clear();
+        minimumVersions.clear();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        long requests = hits + misses;
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hits / requests);
+        stats.put("sizeEvictions", sizeEvictions);
+        stats.put("expirations", expirations);
+        stats.put("invalidations", invalidations);
+        return stats;
+    }
+
+    private synchronized void put(Long id, Product product, long stamp) {
+        if (stamp != generation) {
+            return;
+        }
+        long version = product.getVersion() == null ? 0L : product.getVersion();
+        Long minimumVersion = minimumVersions.get(id);
+        if (minimumVersion != null) {
+            if (version < minimumVersion) {
+                return;
+            }
+            minimumVersions.remove(id);
+        }
+        entries.put(id, new CachedProduct(product, version, System.nanoTime()));
+        Iterator<CachedProduct> eldest = entries.values().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions++;
+        }
+    }
+
+    private static class CachedProduct {
+        private final Product product;
+        private final long version;
+        private final long loadedAt;
+
+        private CachedProduct(Product product, long version, long loadedAt) {
+            this.product = product;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
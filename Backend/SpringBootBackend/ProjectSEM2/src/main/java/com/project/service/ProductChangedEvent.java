@@ -0,0 +1,49 @@
+package com.project.service;
+
+import com.project.model.Product;
+
+/**
+ * Published by {@link ProductServiceImpl} whenever a product is written so that the
+ * in-memory catalog structures can follow the database. Listeners receive it after
+ * the surrounding transaction commits.
+ */
+public class ProductChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long productId;
+    private final Product product;
+
+    private ProductChangedEvent(Type type, Long productId, Product product) {
+        this.type = type;
+        this.productId = productId;
+        this.product = product;
+    }
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(Type.SAVED, product.getId(), product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    /**
+     * The saved product, or {@code null} for {@link Type#DELETED} events.
+     */
+    public Product getProduct() {
+        return product;
+    }
+}
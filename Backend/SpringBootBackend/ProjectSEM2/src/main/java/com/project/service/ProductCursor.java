@@ -0,0 +1,92 @@
+package com.project.service;
+
+import com.project.model.Product;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque position in a cursor-paginated product listing: the sort order plus the
+ * {@code (sort key, product_id)} of the last product returned.
+ */
+public class ProductCursor {
+
+    public static final Set<String> SORT_PROPERTIES = Set.of("id", "name", "price");
+
+    private static final String NULL_VALUE = "-";
+    private static final String VALUE_PREFIX = "=";
+
+    private final String sortProperty;
+    private final boolean ascending;
+    private final Object lastValue;
+    private final Long lastId;
+
+    public ProductCursor(String sortProperty, boolean ascending, Object lastValue, Long lastId) {
+        this.sortProperty = sortProperty;
+        this.ascending = ascending;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    public static ProductCursor after(Product product, String sortProperty, boolean ascending) {
+        Object value;
+        switch (sortProperty) {
+            case "name": value = product.getName(); break;
+            case "price": value = product.getPrice(); break;
+            default: value = product.getId();
+        }
+        return new ProductCursor(sortProperty, ascending, value, product.getId());
+    }
+
+    public String encode() {
+        String value = lastValue == null ? NULL_VALUE : VALUE_PREFIX + lastValue;
+        // The value goes last because product names may contain the separator
+        String raw = sortProperty + "|" + (ascending ? "asc" : "desc") + "|" + lastId + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !SORT_PROPERTIES.contains(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            String sortProperty = parts[0];
+            Long lastId = Long.parseLong(parts[2]);
+            Object value = null;
+            if (parts[3].startsWith(VALUE_PREFIX)) {
+                String text = parts[3].substring(VALUE_PREFIX.length());
+                switch (sortProperty) {
+                    case "name": value = text; break;
+                    case "price": value = new BigDecimal(text); break;
+                    default: value = Long.parseLong(text);
+                }
+            } else if (!NULL_VALUE.equals(parts[3])) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return new ProductCursor(sortProperty, "asc".equals(parts[1]), value, lastId);
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public String getSortProperty() {
+        return sortProperty;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public Object getLastValue() {
+        return lastValue;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+}
@@ -0,0 +1,198 @@
+package com.project.service;
+
+import com.project.model.Product;
+import com.project.model.dto.FacetedSearchResult;
+import com.project.model.dto.PriceBucketDTO;
+import com.project.util.SearchText;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Faceted product search over the in-memory catalog snapshot. Every filter becomes a
+ * bitset of product ordinals, so the result set, the per-category counts and the
+ * price-bucket counts all come from one evaluation with no database round trip.
+ */
+@Service
+public class ProductFacetService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductSearchIndex productSearchIndex;
+    // Upper bounds of the price buckets; a final open-ended bucket follows the last bound
+    private final BigDecimal[] priceBounds;
+
+    @Autowired
+    public ProductFacetService(CatalogSnapshotService catalogSnapshotService,
+                               ProductSearchIndex productSearchIndex,
+                               @Value("${catalog.facets.price-bounds:25,50,100,200}") BigDecimal[] priceBounds) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.productSearchIndex = productSearchIndex;
+        this.priceBounds = priceBounds.clone();
+        Arrays.sort(this.priceBounds);
+    }
+
+    /**
+     * @param pageable page, size and an optional sort on {@code price} or {@code id};
+     *                 keyword searches without a sort are ordered by relevance
+     */
+    public FacetedSearchResult<Product> search(String keyword, Long categoryId, BigDecimal minPrice,
+                                               BigDecimal maxPrice, Pageable pageable) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not be greater than maxPrice");
+        }
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+        if (order != null && !"price".equals(order.getProperty()) && !"id".equals(order.getProperty())) {
+            throw new IllegalArgumentException("Faceted search can only sort by price or id");
+        }
+
+        CatalogSnapshot snapshot = catalogSnapshotService.currentOrBuild();
+        int size = snapshot.size();
+        boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+
+        // Keyword matches as a bitset of ordinals
+        List<Long> rankedIds = null;
+        BitSet keywordBits = new BitSet(size);
+        if (!hasKeyword) {
+            keywordBits.set(0, size);
+        } else if (productSearchIndex.isReady()) {
+            rankedIds = productSearchIndex.search(keyword, null);
+            for (Long id : rankedIds) {
+                int ordinal = snapshot.ordinalOf(id);
+                if (ordinal >= 0) {
+                    keywordBits.set(ordinal);
+                }
+            }
+        } else {
+            String needle = SearchText.normalize(keyword);
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                Product product = snapshot.productAt(ordinal);
+                if (SearchText.normalize(product.getName()).contains(needle)
+                        || SearchText.normalize(product.getDescription()).contains(needle)) {
+                    keywordBits.set(ordinal);
+                }
+            }
+        }
+        // One pass over the keyword matches records each price bucket and the price filter
+        BitSet priceBits = new BitSet(size);
+        int[] bucketOf = new int[size];
+        for (int ordinal = keywordBits.nextSetBit(0); ordinal >= 0; ordinal = keywordBits.nextSetBit(ordinal + 1)) {
+            BigDecimal price = snapshot.productAt(ordinal).getPrice();
+            bucketOf[ordinal] = bucketIndex(price);
+            if (inRange(price, minPrice, maxPrice)) {
+                priceBits.set(ordinal);
+            }
+        }
+
+        BitSet categoryBits = categoryId == null ? null : snapshot.categoryBits().getOrDefault(categoryId, new BitSet());
+
+        // Category facet: keyword and price filters applied, category selection ignored
+        BitSet keywordAndPrice = (BitSet) keywordBits.clone();
+        keywordAndPrice.and(priceBits);
+        Map<Long, Integer> categoryCounts = new TreeMap<>();
+        for (Map.Entry<Long, BitSet> entry : snapshot.categoryBits().entrySet()) {
+            BitSet inCategory = (BitSet) entry.getValue().clone();
+            inCategory.and(keywordAndPrice);
+            int count = inCategory.cardinality();
+            if (count > 0) {
+                categoryCounts.put(entry.getKey(), count);
+            }
+        }
+
+        // Price facet: keyword and category filters applied, price selection ignored
+        BitSet keywordAndCategory = (BitSet) keywordBits.clone();
+        if (categoryBits != null) {
+            keywordAndCategory.and(categoryBits);
+        }
+        int[] bucketCounts = new int[priceBounds.length + 1];
+        for (int ordinal = keywordAndCategory.nextSetBit(0); ordinal >= 0;
+             ordinal = keywordAndCategory.nextSetBit(ordinal + 1)) {
+            if (bucketOf[ordinal] >= 0) {
+                bucketCounts[bucketOf[ordinal]]++;
+            }
+        }
+
+        BitSet matches = (BitSet) keywordAndPrice.clone();
+        if (categoryBits != null) {
+            matches.and(categoryBits);
+        }
+        List<Product> ordered = orderMatches(snapshot, matches, rankedIds, order);
+
+        int page = pageable.isPaged() ? pageable.getPageNumber() : 0;
+        int pageSize = pageable.isPaged() ? pageable.getPageSize() : ordered.size();
+        int from = (int) Math.min((long) page * pageSize, ordered.size());
+        int to = Math.min(from + pageSize, ordered.size());
+        return new FacetedSearchResult<>(new ArrayList<>(ordered.subList(from, to)), page, pageSize,
+                ordered.size(), categoryCounts, priceBuckets(bucketCounts));
+    }
+
+    private List<Product> orderMatches(CatalogSnapshot snapshot, BitSet matches, List<Long> rankedIds,
+                                       Sort.Order order) {
+        List<Product> ordered = new ArrayList<>(matches.cardinality());
+        if (order == null && rankedIds != null) {
+            for (Long id : rankedIds) {
+                int ordinal = snapshot.ordinalOf(id);
+                if (ordinal >= 0 && matches.get(ordinal)) {
+                    ordered.add(snapshot.productAt(ordinal));
+                }
+            }
+            return ordered;
+        }
+        // Ordinals are in id order already
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            ordered.add(snapshot.productAt(ordinal));
+        }
+        if (order != null && "price".equals(order.getProperty())) {
+            Comparator<Product> byPrice = Comparator.comparing(Product::getPrice,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            ordered.sort(order.isAscending() ? byPrice : byPrice.reversed());
+        } else if (order != null && order.isDescending()) {
+            Collections.reverse(ordered);
+        }
+        return ordered;
+    }
+
+    private int bucketIndex(BigDecimal price) {
+        if (price == null) {
+            return -1;
+        }
+        for (int i = 0; i < priceBounds.length; i++) {
+            if (price.compareTo(priceBounds[i]) < 0) {
+                return i;
+            }
+        }
+        return priceBounds.length;
+    }
+
+    private static boolean inRange(BigDecimal price, BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return true;
+        }
+        if (price == null) {
+            return false;
+        }
+        return (minPrice == null || price.compareTo(minPrice) >= 0)
+                && (maxPrice == null || price.compareTo(maxPrice) <= 0);
+    }
+
+    private List<PriceBucketDTO> priceBuckets(int[] counts) {
+        List<PriceBucketDTO> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            BigDecimal min = i == 0 ? null : priceBounds[i - 1];
+            BigDecimal max = i == priceBounds.length ? null : priceBounds[i];
+            buckets.add(new PriceBucketDTO(min, max, counts[i]));
+        }
+        return buckets;
+    }
+}
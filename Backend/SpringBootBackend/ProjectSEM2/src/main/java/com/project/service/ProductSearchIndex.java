@@ -0,0 +1,299 @@
+package com.project.service;
+
+import com.project.model.Product;
+import com.project.util.SearchText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tokenized inverted index over the name and description of every active product.
+ * Keyword searches are answered from here instead of running a
+ * {@code LIKE '%keyword%'} scan over the product table.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // A query term also matches longer index terms it is a prefix of ("shir" -> "shirt"),
+    // scored lower than an exact hit and capped so very short prefixes stay cheap.
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (product id -> weighted term frequency)
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+    // Vocabulary of product-name terms (with the number of products using each) for fuzzy matching
+    private final Map<String, Integer> nameTermCounts = new HashMap<>();
+    private final TrigramIndex nameTrigrams = new TrigramIndex();
+    private volatile boolean ready = false;
+
+    @Autowired
+    public ProductSearchIndex(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    /**
+     * Builds the index from all active products once the application has started.
+     */
+    @EventListener({ApplicationReadyEvent.class, CatalogImportedEvent.class})
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public void rebuild() {
+        List<Product> products = catalogSnapshotService.currentOrBuild().products(null);
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            nameTermCounts.clear();
+            nameTrigrams.clear();
+            for (Product product : products) {
+                addDocument(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product search index built with {} products and {} terms", products.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProductId());
+        } else {
+            index(event.getProduct());
+        }
+    }
+
+    /**
+     * Adds or replaces a product in the index. Soft-deleted products are removed.
+     */
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        if (product.getDeleted() != null && product.getDeleted() != 0) {
+            remove(product.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            addDocument(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the ids of active products matching every term of the keyword, best match first.
+     *
+     * @param categoryId optional category restriction, {@code null} for all categories
+     */
+    public List<Long> search(String keyword, Long categoryId) {
+        List<String> queryTerms = SearchText.tokenize(keyword);
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(documents.size(), 1);
+            Map<Long, Double> scores = null;
+            for (String queryTerm : new HashSet<>(queryTerms)) {
+                Map<Long, Double> termScores = scoreTerm(queryTerm, documentCount);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Every query term must match, like the AND of the old LIKE filters
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return rank(scores, categoryId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Typo-tolerant variant of {@link #search}: each query term also matches product-name
+     * terms within a small edit distance, weighted by how close they are.
+     */
+    public List<Long> fuzzySearch(String keyword, Long categoryId) {
+        List<String> queryTerms = SearchText.tokenize(keyword);
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            int documentCount = Math.max(documents.size(), 1);
+            Map<Long, Double> scores = null;
+            for (String queryTerm : new HashSet<>(queryTerms)) {
+                Map<Long, Double> termScores = scoreTerm(queryTerm, documentCount);
+                for (Map.Entry<String, Double> similar : nameTrigrams.similar(queryTerm).entrySet()) {
+                    if (!similar.getKey().equals(queryTerm)) {
+                        addScores(termScores, postings.get(similar.getKey()), documentCount, similar.getValue());
+                    }
+                }
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return rank(scores, categoryId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String queryTerm, int documentCount) {
+        Map<Long, Double> termScores = new HashMap<>();
+        Map<Long, Integer> exact = postings.get(queryTerm);
+        if (exact != null) {
+            addScores(termScores, exact, documentCount, 1.0);
+        }
+        if (queryTerm.length() >= MIN_PREFIX_LENGTH) {
+            NavigableMap<String, Map<Long, Integer>> prefixed =
+                    postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false);
+            int expansions = 0;
+            for (Map<Long, Integer> termPostings : prefixed.values()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                addScores(termScores, termPostings, documentCount, PREFIX_MATCH_FACTOR);
+            }
+        }
+        return termScores;
+    }
+
+    private void addScores(Map<Long, Double> termScores, Map<Long, Integer> termPostings,
+                           int documentCount, double factor) {
+        double idf = Math.log(1.0 + (double) documentCount / termPostings.size());
+        for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+            termScores.merge(posting.getKey(), posting.getValue() * idf * factor, Double::sum);
+        }
+    }
+
+    private List<Long> rank(Map<Long, Double> scores, Long categoryId) {
+        List<Map.Entry<Long, Double>> matches = new ArrayList<>(scores.size());
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (categoryId == null || categoryId.equals(documents.get(entry.getKey()).categoryId)) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Map.Entry.<Long, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Map.Entry<Long, Double> match : matches) {
+            ids.add(match.getKey());
+        }
+        return ids;
+    }
+
+    // Callers must hold the write lock
+    private void addDocument(Product product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        List<String> nameTokens = SearchText.tokenize(product.getName());
+        Set<String> nameTerms = new HashSet<>(nameTokens);
+        for (String term : nameTokens) {
+            frequencies.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : nameTerms) {
+            if (nameTermCounts.merge(term, 1, Integer::sum) == 1) {
+                nameTrigrams.add(term);
+            }
+        }
+        for (String term : SearchText.tokenize(product.getDescription())) {
+            frequencies.merge(term, DESCRIPTION_WEIGHT, Integer::sum);
+        }
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>())
+                    .put(product.getId(), entry.getValue());
+        }
+        documents.put(product.getId(), new IndexedProduct(product.getCategoryId(), frequencies.keySet(), nameTerms));
+    }
+
+    // Callers must hold the write lock
+    private void removeDocument(Long productId) {
+        IndexedProduct previous = documents.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (String term : previous.nameTerms) {
+            if (nameTermCounts.merge(term, -1, Integer::sum) <= 0) {
+                nameTermCounts.remove(term);
+                nameTrigrams.remove(term);
+            }
+        }
+    }
+
+    private static class IndexedProduct {
+        private final Long categoryId;
+        private final Set<String> terms;
+        private final Set<String> nameTerms;
+
+        private IndexedProduct(Long categoryId, Set<String> terms, Set<String> nameTerms) {
+            this.categoryId = categoryId;
+            this.terms = terms;
+            this.nameTerms = nameTerms;
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.project.service;
 
 import com.project.model.Product;
+import com.project.model.dto.CursorSlice;
+import com.project.model.dto.ProductCardDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.Optional;
 
 public interface ProductService {
     List<Product> getAllProducts();
+    List<ProductCardDTO> getAllProductCards();
+    // Hands every active product to the consumer one row at a time instead of building a list
+    void streamAllProducts(Consumer<Product> consumer);
+    void streamAllProductCards(Consumer<ProductCardDTO> consumer);
     Page<Product> findWithFilters(Long categoryId, String keyword, Pageable pageable);
+    Page<ProductCardDTO> findCardsWithFilters(Long categoryId, String keyword, Pageable pageable);
+    CursorSlice<Product> findWithFiltersAfter(Long categoryId, String keyword, String after, Pageable pageable);
     Product getProductById(Long id);
+    Optional<Product> findById(Long id);
     Product createProduct(Product product);
     Product updateProduct(Long id, Product productDetails);
     void deleteProduct(Long id);
     List<Product> findProductsByCategoryIdAndKeyword(Long categoryId, String keyword);
     List<Product> findProductsByKeyword(String keyword); 
+    List<ProductCardDTO> findProductCardsByKeyword(String keyword);
+    List<Product> findProductsByKeywordFuzzy(String keyword);
+    List<ProductCardDTO> findProductCardsByKeywordFuzzy(String keyword);
 }
\ No newline at end of file
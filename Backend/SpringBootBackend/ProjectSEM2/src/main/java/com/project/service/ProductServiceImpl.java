@@ -1,24 +1,57 @@
 package com.project.service;
 
 import com.project.model.Product;
+import com.project.model.dto.CursorSlice;
+import com.project.model.dto.ProductCardDTO;
 import com.project.repository.ProductRepository;
+import com.project.util.SearchText;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
 import java.util.List; // Ensure List is imported
 import java.util.Collections; // For returning empty list
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl implements ProductService {
 
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 20;
+
     private final ProductRepository productRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCache productCache;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              ProductSearchIndex productSearchIndex,
+                              ProductCache productCache,
+                              CatalogSnapshotService catalogSnapshotService,
+                              ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productCache = productCache;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -27,27 +60,122 @@ public class ProductServiceImpl implements ProductService {
         return productRepository.findAllActive();
     }
 
+    @Override
+    public List<ProductCardDTO> getAllProductCards() {
+        return productRepository.findAllActiveCards();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<Product> consumer) {
+        try (Stream<Product> products = productRepository.streamAllActive()) {
+            products.forEach(product -> {
+                consumer.accept(product);
+                // Drop each row from the persistence context once written, so memory stays flat
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProductCards(Consumer<ProductCardDTO> consumer) {
+        try (Stream<ProductCardDTO> cards = productRepository.streamAllActiveCards()) {
+            cards.forEach(consumer);
+        }
+    }
+
     @Override
     public Page<Product> findWithFilters(Long categoryId, String keyword, Pageable pageable) {
+        // Plain browsing (no keyword) is served from the in-memory catalog snapshot
+        if (keyword == null || keyword.isEmpty()) {
+            Optional<Page<Product>> browsed = catalogSnapshotService.browse(categoryId, pageable);
+            if (browsed.isPresent()) {
+                return browsed.get();
+            }
+        }
+        // Keyword searches are ranked by relevance from the search index; an explicit
+        // sort order is still left to the database query
+        if (isIndexedSearch(keyword) && pageable.getSort().isUnsorted()) {
+            return pageOfIds(productSearchIndex.search(keyword, categoryId), pageable, this::loadInOrder);
+        }
         return productRepository.findWithFilters(categoryId, keyword, pageable);
     }
 
+    @Override
+    public Page<ProductCardDTO> findCardsWithFilters(Long categoryId, String keyword, Pageable pageable) {
+        // Same routing as findWithFilters, but database reads use the card projection
+        if (keyword == null || keyword.isEmpty()) {
+            Optional<Page<Product>> browsed = catalogSnapshotService.browse(categoryId, pageable);
+            if (browsed.isPresent()) {
+                return browsed.get().map(ProductCardDTO::from);
+            }
+        }
+        if (isIndexedSearch(keyword) && pageable.getSort().isUnsorted()) {
+            return pageOfIds(productSearchIndex.search(keyword, categoryId), pageable, this::loadCardsInOrder);
+        }
+        return productRepository.findCardsWithFilters(categoryId, keyword, pageable);
+    }
+
+    @Override
+    public CursorSlice<Product> findWithFiltersAfter(Long categoryId, String keyword, String after, Pageable pageable) {
+        String sortProperty;
+        boolean ascending;
+        ProductCursor cursor = null;
+        if (after != null && !after.isEmpty()) {
+            // A cursor carries its own sort order so later pages can't drift from the first one
+            cursor = ProductCursor.decode(after);
+            sortProperty = cursor.getSortProperty();
+            ascending = cursor.isAscending();
+        } else {
+            Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("id"));
+            sortProperty = order.getProperty();
+            ascending = order.isAscending();
+            if (!ProductCursor.SORT_PROPERTIES.contains(sortProperty)) {
+                throw new IllegalArgumentException("Cursor pagination can only sort by id, name or price");
+            }
+        }
+        String filter = keyword == null || keyword.trim().isEmpty() ? null : keyword.trim();
+        int size = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_CURSOR_PAGE_SIZE;
+
+        Slice<Product> slice = productRepository.findWithFiltersAfter(categoryId, filter, sortProperty, ascending,
+                cursor == null ? null : cursor.getLastValue(), cursor == null ? null : cursor.getLastId(), size);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            Product last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = ProductCursor.after(last, sortProperty, ascending).encode();
+        }
+        return new CursorSlice<>(slice.getContent(), size, slice.hasNext(), nextCursor);
+    }
+
     @Override
     public Product getProductById(Long id) {
         // Only return product if it's not deleted
-        return productRepository.findByIdAndDeletedFalse(id)
+        return productCache.get(id, productRepository::findById)
+                .filter(product -> product.getDeleted() == 0)
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
     }
 
+    @Override
+    public Optional<Product> findById(Long id) {
+        // Includes soft-deleted products, like ProductRepository.findById
+        return productCache.get(id, productRepository::findById);
+    }
+
     @Override
     public Product createProduct(Product product) {
         // Add any validation or business logic before saving
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(savedProduct));
+        return savedProduct;
     }
 
     @Override
     public Product updateProduct(Long id, Product productDetails) {
-        Product product = getProductById(id);
+        // Load a fresh copy: the cached instance is shared and must not be modified in place
+        Product product = productRepository.findByIdAndDeletedFalse(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
 
         // Update fields
         if (productDetails.getName() != null) {
@@ -71,7 +199,9 @@ public class ProductServiceImpl implements ProductService {
         }
         // Add other fields to update as necessary
 
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(savedProduct));
+        return savedProduct;
     }
 
     @Override
@@ -83,6 +213,7 @@ public class ProductServiceImpl implements ProductService {
         }
         // Soft delete by setting deleted = 1
         productRepository.softDeleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     @Override
@@ -95,6 +226,9 @@ public class ProductServiceImpl implements ProductService {
             // Example: return productRepository.findByCategoryId(categoryId); (if such method exists)
             return productRepository.findByCategoryIdAndKeyword(categoryId, ""); // Or handle as needed
         }
+        if (isIndexedSearch(keyword)) {
+            return loadInOrder(productSearchIndex.search(keyword, categoryId));
+        }
         return productRepository.findByCategoryIdAndKeyword(categoryId, keyword);
     }
 
@@ -108,6 +242,89 @@ public class ProductServiceImpl implements ProductService {
             // For now, let's return an empty list if the keyword is blank.
             return Collections.emptyList();
         }
+        if (isIndexedSearch(keyword)) {
+            return loadInOrder(productSearchIndex.search(keyword, null));
+        }
         return productRepository.findByKeywordIgnoreCase(keyword);
     }
+
+    @Override
+    public List<ProductCardDTO> findProductCardsByKeyword(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (isIndexedSearch(keyword)) {
+            return loadCardsInOrder(productSearchIndex.search(keyword, null));
+        }
+        return productRepository.findCardsByKeywordIgnoreCase(keyword);
+    }
+
+    @Override
+    public List<Product> findProductsByKeywordFuzzy(String keyword) {
+        if (!isIndexedSearch(keyword)) {
+            return findProductsByKeyword(keyword);
+        }
+        return loadInOrder(productSearchIndex.fuzzySearch(keyword, null));
+    }
+
+    @Override
+    public List<ProductCardDTO> findProductCardsByKeywordFuzzy(String keyword) {
+        if (!isIndexedSearch(keyword)) {
+            return findProductCardsByKeyword(keyword);
+        }
+        return loadCardsInOrder(productSearchIndex.fuzzySearch(keyword, null));
+    }
+
+    // Falls back to the LIKE queries until the index is built, or when the keyword has no searchable terms
+    private boolean isIndexedSearch(String keyword) {
+        return keyword != null
+                && productSearchIndex.isReady()
+                && !SearchText.tokenize(keyword).isEmpty();
+    }
+
+    private <T> Page<T> pageOfIds(List<Long> ids, Pageable pageable, Function<List<Long>, List<T>> loader) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(loader.apply(ids), pageable, ids.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(loader.apply(ids.subList(from, to)), pageable, ids.size());
+    }
+
+    private List<ProductCardDTO> loadCardsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ProductCardDTO> byId = new HashMap<>();
+        for (ProductCardDTO card : productRepository.findActiveCardsByIdIn(ids)) {
+            byId.put(card.getId(), card);
+        }
+        List<ProductCardDTO> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductCardDTO card = byId.get(id);
+            if (card != null) {
+                ordered.add(card);
+            }
+        }
+        return ordered;
+    }
+
+    // Loads the given products with one primary-key lookup, keeping the ranked order
+    private List<Product> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            byId.put(product.getId(), product);
+        }
+        List<Product> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null && product.getDeleted() == 0) {
+                ordered.add(product);
+            }
+        }
+        return ordered;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,251 @@
+package com.project.service;
+
+import com.project.model.Category;
+import com.project.model.Product;
+import com.project.model.dto.SuggestionDTO;
+import com.project.repository.CategoryRepository;
+import com.project.util.SearchText;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over normalized product and category names backing the search box
+ * typeahead. Every word start of a name is a key, so "shi" completes both
+ * "Shirt" and "Blue Shirt". Children are kept sorted, so a depth-first walk from the
+ * prefix node yields completions in alphabetical order and can stop at the limit.
+ */
+@Component
+public class ProductSuggester {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggester.class);
+
+    public static final String TYPE_PRODUCT = "product";
+    public static final String TYPE_CATEGORY = "category";
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final CategoryRepository categoryRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node();
+    // What is currently indexed for each product and category, so it can be removed again
+    private final Map<Long, String> productNames = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+
+    @Autowired
+    public ProductSuggester(CatalogSnapshotService catalogSnapshotService, CategoryRepository categoryRepository) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.categoryRepository = categoryRepository;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, CatalogImportedEvent.class})
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public void rebuild() {
+        List<Product> products = catalogSnapshotService.currentOrBuild().products(null);
+        List<Category> categories = categoryRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            productNames.clear();
+            categoryNames.clear();
+            for (Product product : products) {
+                addProduct(product);
+            }
+            for (Category category : categories) {
+                addCategory(category);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Suggestion trie built from {} products and {} categories", products.size(), categories.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeProduct(event.getProductId());
+            Product product = event.getProduct();
+            if (product != null && (product.getDeleted() == null || product.getDeleted() == 0)) {
+                addProduct(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(CatalogVersion.VIEW_LISTENER_ORDER)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Category category = categoryRepository.findById(event.getCategoryId()).orElse(null);
+        lock.writeLock().lock();
+        try {
+            String previous = categoryNames.remove(event.getCategoryId());
+            if (previous != null) {
+                removeName(previous, new Entry(TYPE_CATEGORY, previous, event.getCategoryId()));
+            }
+            if (category != null) {
+                addCategory(category);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} distinct completions for the prefix. A category and a
+     * product with the same name both appear, category first.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String key = SearchText.normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            Map<String, SuggestionDTO> results = new LinkedHashMap<>();
+            collect(node, limit, results);
+            return new ArrayList<>(results.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean collect(Node node, int limit, Map<String, SuggestionDTO> results) {
+        if (!node.entries.isEmpty()) {
+            List<Entry> entries = new ArrayList<>(node.entries.keySet());
+            entries.sort((a, b) -> a.type.equals(b.type) ? 0 : TYPE_CATEGORY.equals(a.type) ? -1 : 1);
+            for (Entry entry : entries) {
+                // Several products can share a name; suggest it once
+                results.putIfAbsent(entry.type + ":" + entry.text, new SuggestionDTO(entry.text, entry.type, entry.id));
+                if (results.size() >= limit) {
+                    return true;
+                }
+            }
+        }
+        for (Node child : node.children.values()) {
+            if (collect(child, limit, results)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Callers must hold the write lock
+    private void addProduct(Product product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            return;
+        }
+        productNames.put(product.getId(), product.getName());
+        addName(product.getName(), new Entry(TYPE_PRODUCT, product.getName(), product.getId()));
+    }
+
+    private void removeProduct(Long productId) {
+        String previous = productNames.remove(productId);
+        if (previous != null) {
+            removeName(previous, new Entry(TYPE_PRODUCT, previous, productId));
+        }
+    }
+
+    private void addCategory(Category category) {
+        if (category.getName() == null || category.getName().isBlank()) {
+            return;
+        }
+        categoryNames.put(category.getId(), category.getName());
+        addName(category.getName(), new Entry(TYPE_CATEGORY, category.getName(), category.getId()));
+    }
+
+    private void addName(String name, Entry entry) {
+        for (String key : wordStartKeys(name)) {
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+            }
+            node.entries.merge(entry, 1, Integer::sum);
+        }
+    }
+
+    private void removeName(String name, Entry entry) {
+        for (String key : wordStartKeys(name)) {
+            remove(root, key, 0, entry);
+        }
+    }
+
+    // Returns true when the node is left empty and can be unlinked from its parent
+    private boolean remove(Node node, String key, int depth, Entry entry) {
+        if (depth == key.length()) {
+            node.entries.computeIfPresent(entry, (e, count) -> count > 1 ? count - 1 : null);
+        } else {
+            Node child = node.children.get(key.charAt(depth));
+            if (child != null && remove(child, key, depth + 1, entry)) {
+                node.children.remove(key.charAt(depth));
+            }
+        }
+        return node.entries.isEmpty() && node.children.isEmpty();
+    }
+
+    private static Set<String> wordStartKeys(String name) {
+        List<String> words = SearchText.tokenize(name);
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            keys.add(String.join(" ", words.subList(i, words.size())));
+        }
+        return keys;
+    }
+
+    private static class Node {
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        // Names ending at this node, with how many times each was inserted
+        private final Map<Entry, Integer> entries = new LinkedHashMap<>(2);
+    }
+
+    private static class Entry {
+        private final String type;
+        private final String text;
+        private final Long id;
+
+        private Entry(String type, String text, Long id) {
+            this.type = type;
+            this.text = text;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Entry)) return false;
+            Entry other = (Entry) o;
+            return type.equals(other.type) && text.equals(other.text) && Objects.equals(id, other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, text, id);
+        }
+    }
+}
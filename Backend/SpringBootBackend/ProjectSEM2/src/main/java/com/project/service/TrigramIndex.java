@@ -0,0 +1,166 @@
+package com.project.service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Character trigram index over a vocabulary of terms, used to find the terms closest
+ * to a misspelled query term. Candidates sharing enough trigrams with the query are
+ * verified with a bounded Damerau-Levenshtein distance, so only a small slice of the
+ * vocabulary is ever compared character by character.
+ *
+ * Not thread-safe; {@link ProductSearchIndex} guards it with its own lock.
+ */
+public class TrigramIndex {
+
+    // Queries up to this length may match a term without sharing a single trigram with it
+    private static final int SHORT_QUERY_LENGTH = 4;
+
+    private final Map<String, Set<String>> postings = new HashMap<>();
+    private final Set<String> terms = new HashSet<>();
+    // Terms a short query can reach with its one allowed edit, by length
+    private final Map<Integer, Set<String>> shortTerms = new HashMap<>();
+
+    public void add(String term) {
+        if (terms.add(term)) {
+            for (String gram : trigrams(term)) {
+                postings.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+            }
+            if (term.length() <= SHORT_QUERY_LENGTH + 1) {
+                shortTerms.computeIfAbsent(term.length(), l -> new HashSet<>()).add(term);
+            }
+        }
+    }
+
+    public void remove(String term) {
+        if (terms.remove(term)) {
+            Set<String> sameLength = shortTerms.get(term.length());
+            if (sameLength != null) {
+                sameLength.remove(term);
+            }
+            for (String gram : trigrams(term)) {
+                Set<String> gramTerms = postings.get(gram);
+                if (gramTerms != null) {
+                    gramTerms.remove(term);
+                    if (gramTerms.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        terms.clear();
+        shortTerms.clear();
+    }
+
+    /**
+     * Returns vocabulary terms within the allowed edit distance of the query term, mapped
+     * to a similarity in (0, 1] where 1 is an exact match.
+     */
+    public Map<String, Double> similar(String queryTerm) {
+        Set<String> queryGrams = trigrams(queryTerm);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            Set<String> gramTerms = postings.get(gram);
+            if (gramTerms != null) {
+                for (String term : gramTerms) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        int maxEdits = maxEdits(queryTerm.length());
+        // An adjacent transposition counts as one edit and can destroy four trigrams ("coat"
+        // and "caot" share none), so a term within maxEdits edits must still share this many
+        int minShared = queryGrams.size() - 4 * maxEdits;
+        if (queryTerm.length() <= SHORT_QUERY_LENGTH) {
+            // Only here can that bound drop to zero: check every term of similar length, shared trigram or not
+            for (int length = queryTerm.length() - maxEdits; length <= queryTerm.length() + maxEdits; length++) {
+                for (String term : shortTerms.getOrDefault(length, Set.of())) {
+                    shared.putIfAbsent(term, 0);
+                }
+            }
+        }
+        Map<String, Double> matches = new HashMap<>();
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            String term = candidate.getKey();
+            if (candidate.getValue() < minShared || Math.abs(term.length() - queryTerm.length()) > maxEdits) {
+                continue;
+            }
+            int distance = boundedDistance(queryTerm, term, maxEdits);
+            if (distance <= maxEdits) {
+                matches.put(term, 1.0 - (double) distance / Math.max(queryTerm.length(), term.length()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Edits allowed for a query of this length. A term of length n has n padded trigrams and
+     * each edit can destroy four, so past the short terms the limits keep n - 4 * edits at
+     * one or more: every term in range shares a trigram and is found through the postings.
+     */
+    static int maxEdits(int length) {
+        if (length <= 8) {
+            return 1;
+        }
+        return length <= 12 ? 2 : 3;
+    }
+
+    private static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new LinkedHashSet<>();
+        if (padded.length() < 3) {
+            grams.add(padded);
+            return grams;
+        }
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions),
+     * giving up with {@code limit + 1} as soon as every cell of a row exceeds the limit.
+     */
+    static int boundedDistance(String a, String b, int limit) {
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    public int size() {
+        return terms.size();
+    }
+}
@@ -1,10 +1,8 @@
 package com.project.service;
 
-import com.project.model.Cart;
 import com.project.model.Customer;
 import com.project.model.User;
 import com.project.model.dto.ResultUser;
-import com.project.repository.CartRepository;
 import com.project.repository.CustomerRepository;
 import com.project.repository.UserRepository;
 import com.project.util.PasswordEncryptor;
@@ -12,7 +10,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
@@ -23,9 +20,6 @@ public class UserService {
     
     @Autowired
     private CustomerRepository customerRepository;
-    
-    @Autowired
-    private CartRepository cartRepository;
 
     public User registerUser(User user) {
         if (userRepository.findByUsername(user.getUsername()).isPresent()) {
@@ -77,12 +71,7 @@ public class UserService {
                     customer.setFirstName(loggedInUser.getUsername()); // Default first name
                     customer.setLastName(""); // Empty last name
                     customer = customerRepository.save(customer);
-                    
-                    // Create a cart for the new customer
-                    Cart cart = new Cart();
-                    cart.setCustomer(customer);
-                    cart.setCreatedAt(LocalDateTime.now());
-                    cartRepository.save(cart);
+                    // The cart is created by the first add to cart, not here
                 }
                 
                 // Create a custom field to store the customer ID
@@ -0,0 +1,86 @@
+package com.project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * One lock per key, created on first use and dropped once no thread holds or waits for it.
+ * Callers with the same key run one at a time; callers with different keys never share a
+ * lock, unlike a fixed set of striped locks where unrelated keys can collide.
+ */
+public class KeyedLock<K> {
+
+    private final ConcurrentHashMap<K, Entry> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the action while holding the key's lock. A null key runs it without locking.
+     */
+    public <T> T callLocked(K key, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        Entry entry = acquire(key);
+        try {
+            return action.get();
+        } finally {
+            release(key, entry);
+        }
+    }
+
+    /**
+     * Runs the action while holding the locks of all keys, taken in the given order. Code
+     * that locks several keys must always pass them in the same (e.g. sorted) order.
+     */
+    public <T> T callLockedAll(List<K> keys, Supplier<T> action) {
+        List<Entry> held = new ArrayList<>(keys.size());
+        try {
+            for (K key : keys) {
+                held.add(acquire(key));
+            }
+            return action.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                release(keys.get(i), held.get(i));
+            }
+        }
+    }
+
+    private Entry acquire(K key) {
+        // Counted inside compute, so a lock is never removed while another thread is about to wait on it
+        Entry entry = locks.compute(key, (k, existing) -> {
+            Entry counted = existing != null ? existing : new Entry();
+            counted.users++;
+            return counted;
+        });
+        entry.lock.lock();
+        return entry;
+    }
+
+    private void release(K key, Entry entry) {
+        entry.lock.unlock();
+        locks.computeIfPresent(key, (k, counted) -> --counted.users == 0 ? null : counted);
+    }
+
+    public void runLocked(K key, Runnable action) {
+        callLocked(key, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Number of keys currently locked or waited on.
+     */
+    public int size() {
+        return locks.size();
+    }
+
+    private static class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Threads holding or waiting for the lock; only changed inside compute for this key
+        private int users;
+    }
+}
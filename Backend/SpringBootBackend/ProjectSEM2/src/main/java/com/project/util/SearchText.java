@@ -0,0 +1,49 @@
+package com.project.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text helpers shared by the in-memory search structures so that indexing and
+ * querying always agree on how a string is normalized and split into terms.
+ */
+public class SearchText {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_TERM_CHARS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    /**
+     * Lower-cases the text, strips accents (so "áo" matches "ao") and collapses
+     * everything that is not a letter or digit into single spaces.
+     */
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'D');
+        return NON_TERM_CHARS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Splits the normalized form of the text into terms.
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = normalize(text);
+        List<String> terms = new ArrayList<>();
+        if (normalized.isEmpty()) {
+            return terms;
+        }
+        for (String term : normalized.split(" ")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.util;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.File;
+import java.io.InputStream;
+
+/**
+ * Streams the rows of the first sheet of an .xlsx file with POI's event (SAX) model, so
+ * only the current row is ever held in memory. Cell values arrive as displayed in Excel.
+ */
+public final class XlsxRowReader {
+
+    public interface RowHandler {
+        void row(String[] cells) throws Exception;
+    }
+
+    private XlsxRowReader() {
+    }
+
+    /**
+     * Hands every row after the header row to the handler, as an array of {@code columnCount}
+     * cells where empty cells are null.
+     */
+    public static void read(File file, int columnCount, RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(styles, strings,
+                        new RowCollector(columnCount, handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    /**
+     * Collects the cells of each row into a fixed-size array. The SAX handler skips empty
+     * cells, so values are placed by column index rather than by arrival order.
+     */
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final int columnCount;
+        private final RowHandler handler;
+        private String[] current;
+
+        private RowCollector(int columnCount, RowHandler handler) {
+            this.columnCount = columnCount;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            current = rowNum == 0 ? null : new String[columnCount];
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (current == null || cellReference == null) return;
+            int column = new CellReference(cellReference).getCol();
+            if (column < columnCount) {
+                current[column] = formattedValue;
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (current == null) return;
+            try {
+                handler.row(current);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.project.repository;
+
+import com.project.model.Cart;
+import com.project.model.CartItem;
+import com.project.model.Customer;
+import com.project.model.Product;
+import com.project.model.StockQuantity;
+import com.project.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cart reads must bring back items, products and stock in one statement, however many
+ * lines the cart has. Guards against an association that reintroduces per-line selects.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class CartItemRepositoryTest {
+
+    private static final int CART_LINES = 50;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cart cart;
+    private Customer customer;
+
+    @BeforeEach
+    void createCart() {
+        User user = new User();
+        user.setEmail("cart-test@example.com");
+        user.setUsername("cart-test");
+        user.setPassword("password123");
+        entityManager.persist(user);
+
+        customer = new Customer();
+        customer.setUser(user);
+        entityManager.persist(customer);
+
+        cart = new Cart();
+        cart.setCustomer(customer);
+        cart.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(cart);
+
+        for (int i = 0; i < CART_LINES; i++) {
+            StockQuantity stock = new StockQuantity();
+            stock.setMQuantity(10);
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(BigDecimal.TEN);
+            product.setStockQuantity(stock);
+            entityManager.persist(product);
+
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProduct(product);
+            item.setQuantity(1);
+            item.setSize("M");
+            entityManager.persist(item);
+        }
+        entityManager.flush();
+        // Start the reads from an empty persistence context, as a new request would
+        entityManager.clear();
+    }
+
+    @Test
+    void findByCartCustomerIdLoadsCartInOneStatement() {
+        Statistics statistics = statistics();
+
+        List<CartItem> items = cartItemRepository.findByCartCustomerId(customer.getId());
+        items.forEach(CartItemRepositoryTest::touchProductAndStock);
+
+        assertThat(items).hasSize(CART_LINES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByCartIdLoadsCartInOneStatement() {
+        Statistics statistics = statistics();
+
+        List<CartItem> items = cartItemRepository.findByCartId(cart.getId());
+        items.forEach(CartItemRepositoryTest::touchProductAndStock);
+
+        assertThat(items).hasSize(CART_LINES);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static void touchProductAndStock(CartItem item) {
+        assertThat(item.getProduct().getName()).isNotNull();
+        assertThat(item.getProduct().getStockQuantity().getMQuantity()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,71 @@
+package com.project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The trigram filter may only narrow the candidates, never drop a term that is within the
+ * allowed edit distance.
+ */
+class TrigramIndexTest {
+
+    @Test
+    void findsShortTranspositionSharingNoTrigram() {
+        TrigramIndex index = indexOf(List.of("coat", "boat", "cast"));
+
+        assertThat(index.similar("caot")).containsKey("coat");
+    }
+
+    @Test
+    void findsTranspositionSharingOneTrigramAtLengthFive() {
+        // "$abcde$" and "$acbde$" only share "de$"
+        TrigramIndex index = indexOf(List.of("acbde"));
+
+        assertThat(index.similar("abcde")).containsOnlyKeys("acbde");
+    }
+
+    @Test
+    void matchesExhaustiveSearch() {
+        // A four-letter alphabet yields many near neighbours and repeated trigrams
+        Random random = new Random(42);
+        Set<String> vocabulary = new HashSet<>();
+        while (vocabulary.size() < 2000) {
+            vocabulary.add(randomTerm(random));
+        }
+        TrigramIndex index = indexOf(vocabulary);
+
+        for (int i = 0; i < 500; i++) {
+            String query = randomTerm(random);
+            int maxEdits = TrigramIndex.maxEdits(query.length());
+            Set<String> expected = new HashSet<>();
+            for (String term : vocabulary) {
+                if (Math.abs(term.length() - query.length()) <= maxEdits
+                        && TrigramIndex.boundedDistance(query, term, maxEdits) <= maxEdits) {
+                    expected.add(term);
+                }
+            }
+            assertThat(index.similar(query).keySet()).as("query %s", query).isEqualTo(expected);
+        }
+    }
+
+    private static TrigramIndex indexOf(Iterable<String> terms) {
+        TrigramIndex index = new TrigramIndex();
+        terms.forEach(index::add);
+        return index;
+    }
+
+    private static String randomTerm(Random random) {
+        int length = 2 + random.nextInt(13);
+        StringBuilder term = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            term.append((char) ('a' + random.nextInt(4)));
+        }
+        return term.toString();
+    }
+}